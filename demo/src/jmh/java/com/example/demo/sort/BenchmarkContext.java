@@ -0,0 +1,34 @@
+package com.example.demo.sort;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.DemoApplication;
+
+/**
+ * Starts the application without a web server for benchmarks to call into.
+ * The trace cache is disabled so every call generates, and stored traces
+ * expire within seconds so the store does not grow across iterations;
+ * {@code overrides} replace these defaults.
+ */
+final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	static ConfigurableApplicationContext start(String... overrides) {
+		return new SpringApplicationBuilder(DemoApplication.class)
+			.web(WebApplicationType.NONE)
+			.logStartupInfo(false)
+			.properties(
+				"spring.main.banner-mode=off",
+				"logging.level.root=warn",
+				"trace.cache.max-size=0B",
+				"trace.store.ttl=2s",
+				"trace.store.idle-timeout=2s",
+				"trace.store.sweep-interval-ms=1000")
+			.properties(overrides)
+			.run();
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.demo.sort;
+
+import java.util.SplittableRandom;
+
+/**
+ * Input shapes for the benchmarks. Inputs are generated from a fixed seed so
+ * every run sorts the same arrays.
+ */
+public enum Distribution {
+	RANDOM,
+	SORTED,
+	REVERSED,
+	FEW_UNIQUE;
+
+	private static final long SEED = 42;
+	private static final int FEW = 4;
+
+	public int[] generate(int size) {
+		SplittableRandom random = new SplittableRandom(SEED);
+		return switch (this) {
+			case RANDOM -> random.ints(size, 0, 4 * size).toArray();
+			case SORTED -> random.ints(size, 0, 4 * size).sorted().toArray();
+			case REVERSED -> {
+				int[] array = random.ints(size, 0, 4 * size).sorted().toArray();
+				for (int i = 0, j = size - 1; i < j; i++, j--) {
+					int value = array[i];
+					array[i] = array[j];
+					array[j] = value;
+				}
+				yield array;
+			}
+			case FEW_UNIQUE -> random.ints(size, 0, FEW).toArray();
+		};
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.demo.sort;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Cost of {@code /init} per algorithm, input size and distribution: admission,
+ * generation and storing the trace. Run with {@code -prof gc} for the
+ * allocation rate. Inputs too large to record up front are admitted for
+ * on-demand playback, as they are in production, so the large bubble,
+ * selection and insertion sizes measure step counting rather than recording.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class InitSortBenchmark {
+
+	@Param({"bubble", "selection", "insertion", "count", "merge", "quick", "heap"})
+	public String algorithm;
+
+	@Param({"10", "100", "1000", "10000"})
+	public int size;
+
+	@Param
+	public Distribution distribution;
+
+	private ConfigurableApplicationContext context;
+	private SortEngine engine;
+	private SortRequest request;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		engine = context.getBean(SortEngine.class);
+		request = new SortRequest();
+		request.setArray(distribution.generate(size));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public SortResponse initSort() {
+		return engine.initSort(algorithm, request);
+	}
+}
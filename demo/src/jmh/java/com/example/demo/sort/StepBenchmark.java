@@ -0,0 +1,108 @@
+package com.example.demo.sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.trace.BinaryStepWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cost of serving {@code /step}: looking the step up in its trace and
+ * serializing it as JSON or binary. Steps are requested in a fixed
+ * pseudo-random order, so delta-trace keyframe seeks and lazy-trace
+ * checkpoint resumes are part of the measurement. An eager trace too large
+ * to record up front is played on demand, as it is in production, so such
+ * trials measure the lazy trace; the trial output says so.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StepBenchmark {
+
+	private static final int LOOKUPS = 1024;
+
+	@Param({"bubble", "selection", "insertion", "count", "merge", "quick", "heap"})
+	public String algorithm;
+
+	@Param({"10", "100", "1000", "10000"})
+	public int size;
+
+	@Param
+	public Distribution distribution;
+
+	@Param({"eager", "lazy"})
+	public String mode;
+
+	private ConfigurableApplicationContext context;
+	private SortEngine engine;
+	private ObjectMapper objectMapper;
+	private String traceId;
+	private int[] stepNumbers;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// The trace must outlive the trial
+		context = BenchmarkContext.start("trace.store.ttl=1h", "trace.store.idle-timeout=1h");
+		engine = context.getBean(SortEngine.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+
+		SortRequest request = new SortRequest();
+		request.setArray(distribution.generate(size));
+		request.setMode(mode);
+		SortResponse response = engine.initSort(algorithm, request);
+		String admitted = response.getEstimate().mode();
+		if (!admitted.equals(mode)) {
+			System.out.println(algorithm + " on " + size + " " + distribution + " inputs is played " + admitted
+				+ ", not " + mode);
+		}
+		traceId = response.getTraceId();
+		stepNumbers = new SplittableRandom(7).ints(LOOKUPS, 0, response.getTotalSteps()).toArray();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	private StepResponse nextStep() {
+		int stepNumber = stepNumbers[next];
+		next = (next + 1) % LOOKUPS;
+		return engine.getStep(algorithm, traceId, stepNumber);
+	}
+
+	@Benchmark
+	public byte[] json() throws IOException {
+		return objectMapper.writeValueAsBytes(nextStep());
+	}
+
+	@Benchmark
+	public byte[] binary() throws IOException {
+		StepResponse step = nextStep();
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		BinaryStepWriter out = new BinaryStepWriter(buffer);
+		out.writeVarint(step.getStepNumber() + 1);
+		step.getState().writeTo(out);
+		return buffer.toByteArray();
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.demo.bubbleSort;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+@Component
+class BubbleSort implements SortAlgorithm<SortState> {
+    static final String ALGORITHM = "bubble";
+
+    // Animation codes recorded per step
+    private static final int COMPARE = 0;
+    private static final int SWAP = 1;
+    private static final String[] ANIMATIONS = {null, "swap"};
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Bubble sort";
+    }
+
+    @Override
+    public String[] animations() {
+        return ANIMATIONS;
+    }
+
+    @Override
+    public void record(int[] array, StepRecorder<SortState> steps) {
+        int[] sortedArray = array.clone();
+
+        // Perform bubble sort and store steps
+        int n = sortedArray.length;
+        // Add initial step
+        for (int i = 0; i < n - 1; i++) {
+            // Add newly sorted index from previous iteration
+            if (i > 0) {
+                steps.markSorted(n - i);
+            }
+            
+            for (int j = 0; j < n - i - 1; j++) {
+                // Add step before comparison
+                steps.step(COMPARE, j + 1, j, 0, false);
+                
+                steps.countComparison();
+                if (sortedArray[j] > sortedArray[j + 1]) {
+                    // Swap elements
+                    int temp = sortedArray[j];
+                    sortedArray[j] = sortedArray[j + 1];
+                    sortedArray[j + 1] = temp;
+                    
+                    // Add step after swap
+                    steps.swap(j, j + 1);
+                    steps.step(SWAP, j + 1, j, 0, false);
+                }
+            } 
+        }
+        // Add final sorted index and step
+        steps.markSorted(1);
+        steps.markSorted(0);
+        steps.step(COMPARE, n - 1, n - 1, 0, true);
+    }
+
+    @Override
+    public SortState decode(DeltaTrace.Frame frame) {
+        SortState state = new SortState();
+        state.setArray(frame.array());
+        state.setSwapIndex(frame.first());
+        state.setComparingIndex(frame.second());
+        state.setSortedRange(frame.sortedRange());
+        state.setIsCompleted(frame.completed());
+        state.setAnimation(frame.animation());  // Will be either "swap" or null
+        return state;
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return BubbleSortCursor.countSteps(array);
+    }
+
+    @Override
+    public StepCursor<SortState> cursor(int[] array) {
+        return new BubbleSortCursor(array);
+    }
+
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 1);
+    }
+}
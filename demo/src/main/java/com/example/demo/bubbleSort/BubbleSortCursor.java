@@ -0,0 +1,108 @@
+package com.example.demo.bubbleSort;
+
+import com.example.demo.trace.Inversions;
+import com.example.demo.trace.OperationCounts;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepCursor;
+
+/**
+ * Bubble sort as a resumable state machine. Emits the same steps, in the
+ * same order, as {@link BubbleSort#record}.
+ */
+class BubbleSortCursor implements StepCursor<SortState> {
+    private static final int COMPARE = 0;
+    private static final int SWAP = 1;
+    private static final int DONE = 2;
+
+    private final int[] array;
+    private int position;
+    private int i;
+    private int j;
+    private int kind;
+    private long comparisons;
+    private long swaps;
+
+    BubbleSortCursor(int[] initialArray) {
+        this.array = initialArray.clone();
+        this.kind = array.length > 1 ? COMPARE : DONE;
+    }
+
+    private BubbleSortCursor(BubbleSortCursor other) {
+        this.array = other.array.clone();
+        this.position = other.position;
+        this.i = other.i;
+        this.j = other.j;
+        this.kind = other.kind;
+        this.comparisons = other.comparisons;
+        this.swaps = other.swaps;
+    }
+
+    /**
+     * One step per comparison, one per swap and a final step.
+     */
+    static long countSteps(int[] array) {
+        long n = array.length;
+        return n * (n - 1) / 2 + Inversions.count(array) + 1;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public void advance() {
+        if (kind == DONE) {
+            throw new IllegalStateException("Trace is complete");
+        }
+        if (kind == COMPARE) {
+            comparisons++;
+        }
+        if (kind == COMPARE && array[j] > array[j + 1]) {
+            swaps++;
+            int temp = array[j];
+            array[j] = array[j + 1];
+            array[j + 1] = temp;
+            kind = SWAP;
+        } else if (++j < array.length - i - 1) {
+            kind = COMPARE;
+        } else {
+            i++;
+            j = 0;
+            kind = i < array.length - 1 ? COMPARE : DONE;
+        }
+        position++;
+    }
+
+    @Override
+    public SortState current() {
+        int n = array.length;
+        int sortedPasses = kind == DONE ? Math.max(n - 2, 0) : i;
+        SortedRange sortedRange = SortedRange.of(n - sortedPasses, n);
+
+        SortState state = new SortState();
+        state.setArray(array.clone());
+        if (kind == DONE) {
+            sortedRange = sortedRange.extend(1).extend(0);
+            state.setSwapIndex(n - 1);
+            state.setComparingIndex(n - 1);
+            state.setIsCompleted(true);
+        } else {
+            state.setSwapIndex(j + 1);
+            state.setComparingIndex(j);
+            state.setAnimation(kind == SWAP ? "swap" : null);
+        }
+        state.setSortedRange(sortedRange);
+        return state;
+    }
+
+    @Override
+    public OperationCounts counts() {
+        return new OperationCounts(comparisons, swaps, 2 * swaps, 0, 0);
+    }
+
+    @Override
+    public BubbleSortCursor copy() {
+        return new BubbleSortCursor(this);
+    }
+}
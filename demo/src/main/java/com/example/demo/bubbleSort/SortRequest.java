@@ -1,15 +0,0 @@
-package com.example.demo.bubbleSort;
-
-class SortRequest {
-    private int[] array;
-    
-    public SortRequest() {}
-    
-    public int[] getArray() {
-        return array;
-    }
-    
-    public void setArray(int[] array) {
-        this.array = array;
-    }
-}
@@ -1,19 +1,25 @@
 package com.example.demo.bubbleSort;
 
 import org.springframework.stereotype.Service;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
 import lombok.Data;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 @Data
-class SortState {
+class SortState implements BinaryEncodable {
+    private static final String[] ANIMATIONS = {"swap"};
+
     private int[] array;
     private int swapIndex;
     private int comparingIndex;
-    private List<Integer> sortedIndices;
+    private SortedRange sortedRange;
     private boolean isCompleted;
-    private int[] initialArray;
     private String animation;
 
     // Getters
@@ -29,18 +35,14 @@ class SortState {
         return comparingIndex;
     }
 
-    public List<Integer> getSortedIndices() {
-        return sortedIndices;
+    public SortedRange getSortedRange() {
+        return sortedRange;
     }
 
     public boolean getIsCompleted() {
         return isCompleted;
     }
 
-    public int[] getInitialArray() {
-        return initialArray;
-    }
-
     public String getAnimation() {
         return animation;
     }
@@ -58,19 +60,25 @@ class SortState {
         this.comparingIndex = comparingIndex;
     }
 
-    public void setSortedIndices(List<Integer> sortedIndices) {
-        this.sortedIndices = sortedIndices;
+    public void setSortedRange(SortedRange sortedRange) {
+        this.sortedRange = sortedRange;
     }
 
     public void setIsCompleted(boolean isCompleted) {
         this.isCompleted = isCompleted;
     }
 
-    public void setInitialArray(int[] initialArray) {
-        this.initialArray = initialArray;
-    }
-
     public void setAnimation(String animation) {
         this.animation = animation;
     }
+
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeSignedVarint(swapIndex);
+        out.writeSignedVarint(comparingIndex);
+        out.writeSortedRange(sortedRange);
+        out.writeByte(isCompleted ? 1 : 0);
+        out.writeCode(animation, ANIMATIONS);
+    }
 }
@@ -0,0 +1,141 @@
+package com.example.demo.countSort;
+
+import java.util.Arrays;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Counting sort with prefix-sum placement, over any range of values. The
+ * counter is offset by the minimum, or sparse for wide ranges (see
+ * {@link CounterSlots}), so a trace takes O(n + k) steps for k slots.
+ *
+ * <p>The auxiliary buffer holds the slot keys, the counters and a placed
+ * flag per output position. Element visibility in the other phases is
+ * implied by the phase and index of each step, so it is rebuilt when
+ * decoding.
+ */
+@Component
+class CountSort implements SortAlgorithm<SortState> {
+    static final String ALGORITHM = "count";
+
+    // Animation codes recorded per step
+    private static final int NONE = 0;
+    private static final int SET = 1;
+    private static final int CUMULATIVE = 2;
+    private static final int PLACEMENT = 3;
+    private static final String[] ANIMATIONS = {null, "set", "cumulative", "placement"};
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Counting sort";
+    }
+
+    @Override
+    public String[] animations() {
+        return ANIMATIONS;
+    }
+
+    @Override
+    public void validate(int[] array) {
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Input array cannot be empty");
+        }
+    }
+
+    @Override
+    public void record(int[] inputArray, StepRecorder<SortState> steps) {
+        int n = inputArray.length;
+        CounterSlots slots = CounterSlots.of(inputArray);
+        int k = slots.size();
+        int[] aux = new int[2 * k + n];
+        System.arraycopy(slots.keys(), 0, aux, 0, k);
+        steps.auxiliary(aux);
+
+        // Initial state
+        steps.step(NONE, 0, -1, 0, false);
+
+        // Set phase: count each value
+        for (int i = 0; i < n; i++) {
+            int slot = slots.slot(inputArray[i]);
+            steps.writeAux(k + slot, steps.getAux(k + slot) + 1);
+            steps.step(SET, i, slot, 0, false);
+        }
+
+        // Cumulative phase: each counter becomes the end of its value's run
+        for (int slot = 1; slot < k; slot++) {
+            steps.writeAux(k + slot, steps.getAux(k + slot) + steps.getAux(k + slot - 1));
+            steps.step(CUMULATIVE, -1, slot, 0, false);
+        }
+
+        // Placement phase: right to left, so equal values keep their order
+        for (int i = n - 1; i >= 0; i--) {
+            int slot = slots.slot(inputArray[i]);
+            int position = steps.getAux(k + slot) - 1;
+            steps.writeAux(k + slot, position);
+            steps.write(position, inputArray[i]);
+            steps.writeAux(2 * k + position, 1);
+            steps.step(PLACEMENT, position, slot, 0, false);
+        }
+
+        // Final state
+        steps.sorted(SortedRange.of(0, n));
+        steps.step(NONE, n - 1, -1, 0, true);
+    }
+
+    @Override
+    public SortState decode(DeltaTrace.Frame frame) {
+        int n = frame.array().length;
+        int[] aux = frame.aux();
+        int k = (aux.length - n) / 2;
+
+        int[] visibility = new int[n];
+        String animation = frame.animation();
+        if ("set".equals(animation)) {
+            Arrays.fill(visibility, frame.first() + 1, n, 1);
+        } else if ("placement".equals(animation)) {
+            System.arraycopy(aux, 2 * k, visibility, 0, n);
+        } else if (animation == null) {
+            Arrays.fill(visibility, 1);
+        }
+
+        SortState state = new SortState();
+        state.setArray(frame.array());
+        state.setCurrentIndex(frame.first());
+        state.setArrayVisibility(visibility);
+        state.setCounterKeys(Arrays.copyOf(aux, k));
+        state.setCounter(Arrays.copyOfRange(aux, k, 2 * k));
+        state.setCounterIndex(frame.second());
+        state.setShowCountArray(!frame.completed());
+        state.setSortedRange(frame.sortedRange());
+        state.setCompleted(frame.completed());
+        state.setAnimation(animation);
+        return state;
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return CountSortCursor.countSteps(array);
+    }
+
+    @Override
+    public StepCursor<SortState> cursor(int[] array) {
+        return new CountSortCursor(array.clone());
+    }
+
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 2) + 2 * Footprint.intArray(CounterSlots.maxSlots(length));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.countSort;
+
+import java.util.Arrays;
+
+import com.example.demo.trace.OperationCounts;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepCursor;
+
+/**
+ * Counting sort as a resumable state machine. Emits the same steps, in the
+ * same order, as {@link CountSort#record}.
+ */
+class CountSortCursor implements StepCursor<SortState> {
+    private static final int INITIAL = 0;
+    private static final int SET = 1;
+    private static final int CUMULATIVE = 2;
+    private static final int PLACEMENT = 3;
+    private static final int FINAL = 4;
+
+    private final int[] initialArray;
+    private final CounterSlots slots;
+    private final int[] array;
+    private final int[] count;
+    private final int[] placed;
+    private int position;
+    private int i;
+    private int slot;
+    private int phase;
+    private long writes;
+    private long auxWrites;
+
+    CountSortCursor(int[] initialArray) {
+        this.initialArray = initialArray;
+        this.slots = CounterSlots.of(initialArray);
+        this.array = initialArray.clone();
+        this.count = new int[slots.size()];
+        this.placed = new int[initialArray.length];
+        this.slot = -1;
+        this.phase = INITIAL;
+    }
+
+    private CountSortCursor(CountSortCursor other) {
+        this.initialArray = other.initialArray;
+        this.slots = other.slots;
+        this.array = other.array.clone();
+        this.count = other.count.clone();
+        this.placed = other.placed.clone();
+        this.position = other.position;
+        this.i = other.i;
+        this.slot = other.slot;
+        this.phase = other.phase;
+        this.writes = other.writes;
+        this.auxWrites = other.auxWrites;
+    }
+
+    /**
+     * The initial step, one step per element when counting and placing, one
+     * per counter slot after the first when accumulating, and the final step.
+     */
+    static long countSteps(int[] array) {
+        return 2L * array.length + CounterSlots.of(array).size() + 1;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public void advance() {
+        int n = array.length;
+        switch (phase) {
+            case INITIAL -> {
+                i = 0;
+                tally();
+                phase = SET;
+            }
+            case SET -> {
+                if (++i < n) {
+                    tally();
+                } else if (count.length > 1) {
+                    slot = 1;
+                    accumulate();
+                    phase = CUMULATIVE;
+                } else {
+                    i = n - 1;
+                    place();
+                    phase = PLACEMENT;
+                }
+            }
+            case CUMULATIVE -> {
+                if (++slot < count.length) {
+                    accumulate();
+                } else {
+                    i = n - 1;
+                    place();
+                    phase = PLACEMENT;
+                }
+            }
+            case PLACEMENT -> {
+                if (--i >= 0) {
+                    place();
+                } else {
+                    slot = -1;
+                    phase = FINAL;
+                }
+            }
+            default -> throw new IllegalStateException("Trace is complete");
+        }
+        position++;
+    }
+
+    private void tally() {
+        slot = slots.slot(initialArray[i]);
+        count[slot]++;
+        auxWrites++;
+    }
+
+    private void accumulate() {
+        count[slot] += count[slot - 1];
+        auxWrites++;
+    }
+
+    private void place() {
+        slot = slots.slot(initialArray[i]);
+        int target = --count[slot];
+        array[target] = initialArray[i];
+        placed[target] = 1;
+        writes++;
+        // The counter and the placed marker
+        auxWrites += 2;
+    }
+
+    @Override
+    public SortState current() {
+        int n = array.length;
+        SortState state = new SortState();
+        state.setArray(array.clone());
+        state.setCounter(count.clone());
+        state.setCounterKeys(slots.keys().clone());
+        state.setCounterIndex(slot);
+        state.setShowCountArray(phase != FINAL);
+        state.setSortedRange(SortedRange.EMPTY);
+
+        int[] visibility = new int[n];
+        switch (phase) {
+            case INITIAL -> Arrays.fill(visibility, 1);
+            case SET -> {
+                state.setCurrentIndex(i);
+                state.setAnimation("set");
+                Arrays.fill(visibility, i + 1, n, 1);
+            }
+            case CUMULATIVE -> {
+                state.setCurrentIndex(-1);
+                state.setAnimation("cumulative");
+            }
+            case PLACEMENT -> {
+                // The counter was just decremented to the position written
+                state.setCurrentIndex(count[slot]);
+                state.setAnimation("placement");
+                System.arraycopy(placed, 0, visibility, 0, n);
+            }
+            default -> {
+                state.setCurrentIndex(n - 1);
+                state.setCompleted(true);
+                Arrays.fill(visibility, 1);
+                state.setSortedRange(SortedRange.of(0, n));
+            }
+        }
+        state.setArrayVisibility(visibility);
+        return state;
+    }
+
+    /**
+     * The auxiliary memory matches what {@link CountSort#record} declares:
+     * the counter keys, the counters and the placed markers.
+     */
+    @Override
+    public OperationCounts counts() {
+        return new OperationCounts(0, 0, writes, auxWrites, 2 * count.length + array.length);
+    }
+
+    @Override
+    public CountSortCursor copy() {
+        return new CountSortCursor(this);
+    }
+}
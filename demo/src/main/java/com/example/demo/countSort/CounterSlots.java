@@ -0,0 +1,61 @@
+package com.example.demo.countSort;
+
+import java.util.Arrays;
+
+/**
+ * Maps the values of an input onto counter slots. Narrow ranges get one
+ * slot per value from the minimum to the maximum; wide ranges would make
+ * that counter (and the cumulative pass over it) far larger than the
+ * input, so they get one slot per distinct value instead.
+ */
+final class CounterSlots {
+    private static final int MIN_DENSE_SLOTS = 16;
+
+    private final int[] keys;
+    private final boolean dense;
+
+    private CounterSlots(int[] keys, boolean dense) {
+        this.keys = keys;
+        this.dense = dense;
+    }
+
+    static CounterSlots of(int[] array) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int value : array) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        long range = (long) max - min + 1;
+        if (range <= maxSlots(array.length)) {
+            int[] keys = new int[(int) range];
+            for (int slot = 0; slot < keys.length; slot++) {
+                keys[slot] = min + slot;
+            }
+            return new CounterSlots(keys, true);
+        }
+        return new CounterSlots(Arrays.stream(array).sorted().distinct().toArray(), false);
+    }
+
+    /**
+     * The largest counter used for an input of {@code length} elements.
+     */
+    static int maxSlots(int length) {
+        return Math.max(MIN_DENSE_SLOTS, 2 * length);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    int slot(int value) {
+        return dense ? value - keys[0] : Arrays.binarySearch(keys, value);
+    }
+
+    /**
+     * The value counted by each slot, in ascending order.
+     */
+    int[] keys() {
+        return keys;
+    }
+}
@@ -1,18 +1,26 @@
 package com.example.demo.countSort;
 
-import java.util.List;  
+import java.io.IOException;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
 import lombok.Data;
 
 @Data
-class SortState {
+class SortState implements BinaryEncodable {
+    private static final String[] ANIMATIONS = {"set", "cumulative", "placement"};
+
     private int[] array;
     private int currentIndex;
     private int[] arrayVisibility;
     private int[] counter;
+    private int[] counterKeys;
+    private int counterIndex;
     private boolean showCountArray;
-    private List<Integer> sortedIndices;
+    private SortedRange sortedRange;
     private boolean isCompleted;
-    private int[] initialArray;
     private String animation;
 
     // Getters and setters
@@ -24,14 +32,29 @@ class SortState {
     public void setArrayVisibility(int[] arrayVisibility) { this.arrayVisibility = arrayVisibility; }
     public int[] getCounter() { return counter; }
     public void setCounter(int[] counter) { this.counter = counter; }
+    public int[] getCounterKeys() { return counterKeys; }
+    public void setCounterKeys(int[] counterKeys) { this.counterKeys = counterKeys; }
+    public int getCounterIndex() { return counterIndex; }
+    public void setCounterIndex(int counterIndex) { this.counterIndex = counterIndex; }
     public boolean isShowCountArray() { return showCountArray; }
     public void setShowCountArray(boolean showCountArray) { this.showCountArray = showCountArray; }
-    public List<Integer> getSortedIndices() { return sortedIndices; }
-    public void setSortedIndices(List<Integer> sortedIndices) { this.sortedIndices = sortedIndices; }
+    public SortedRange getSortedRange() { return sortedRange; }
+    public void setSortedRange(SortedRange sortedRange) { this.sortedRange = sortedRange; }
     public boolean isCompleted() { return isCompleted; }
     public void setCompleted(boolean completed) { isCompleted = completed; }
-    public int[] getInitialArray() { return initialArray; }
-    public void setInitialArray(int[] initialArray) { this.initialArray = initialArray; }
     public String getAnimation() { return animation; }
     public void setAnimation(String animation) { this.animation = animation; }
+
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeSignedVarint(currentIndex);
+        out.writeFlags(arrayVisibility);
+        out.writeIntArray(counter);
+        out.writeIntArray(counterKeys);
+        out.writeSignedVarint(counterIndex);
+        out.writeSortedRange(sortedRange);
+        out.writeByte((isCompleted ? 1 : 0) | (showCountArray ? 2 : 0));
+        out.writeCode(animation, ANIMATIONS);
+    }
 }
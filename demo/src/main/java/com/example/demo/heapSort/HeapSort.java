@@ -0,0 +1,83 @@
+package com.example.demo.heapSort;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Heap sort. Recording and lazy playback share {@link HeapSortCursor}; the
+ * heap size and sift depth are implied by the sorted region and the
+ * current index, so they are rebuilt when decoding.
+ */
+@Component
+class HeapSort implements SortAlgorithm<SortState> {
+    static final String ALGORITHM = "heap";
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Heap sort";
+    }
+
+    @Override
+    public String[] animations() {
+        return HeapSortCursor.ANIMATIONS;
+    }
+
+    @Override
+    public void record(int[] array, StepRecorder<SortState> steps) {
+        new HeapSortCursor(array, this::decode, steps).run();
+    }
+
+    @Override
+    public SortState decode(DeltaTrace.Frame frame) {
+        int n = frame.array().length;
+        int current = frame.first();
+
+        SortState state = new SortState();
+        state.setArray(frame.array());
+        state.setCurrentIndex(current);
+        state.setComparingIndex(frame.second());
+        state.setHeapSize(frame.completed() ? 0 : n - frame.sortedRange().size());
+        state.setDepth(current < 0 ? 0 : 31 - Integer.numberOfLeadingZeros(current + 1));
+        state.setSortedRange(frame.sortedRange());
+        state.setCompleted(frame.completed());
+        state.setAnimation(frame.animation());
+        return state;
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return new HeapSortCursor(array, this::decode, null).countSteps();
+    }
+
+    /**
+     * Building the heap sifts n / 2 nodes and extraction n - 1. Each sift
+     * descends at most log n levels, with a comparison and a swap per
+     * level, and each extraction adds a step of its own.
+     */
+    @Override
+    public long estimateSteps(int[] array) {
+        long n = array.length;
+        int levels = Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(n, 1));
+        return 2 + (n / 2 + n) * (2L * levels + 2);
+    }
+
+    @Override
+    public StepCursor<SortState> cursor(int[] array) {
+        return new HeapSortCursor(array, this::decode, null);
+    }
+
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 1);
+    }
+}
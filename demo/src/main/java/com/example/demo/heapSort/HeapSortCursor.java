@@ -0,0 +1,124 @@
+package com.example.demo.heapSort;
+
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.RecordingCursor;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Heap sort as a resumable state machine: a bottom-up max-heap build, then
+ * repeatedly moving the root behind the heap and sifting the new root
+ * down. The sorted region grows from the end of the array.
+ */
+class HeapSortCursor extends RecordingCursor<SortState> {
+    // Animation codes recorded per step
+    static final int NONE = 0;
+    static final int COMPARE = 1;
+    static final int SWAP = 2;
+    static final int EXTRACT = 3;
+    static final String[] ANIMATIONS = {null, "compare", "swap", "extract"};
+
+    private static final int INITIAL = 0;
+    private static final int BUILD = 1;
+    private static final int SIFT = 2;
+    private static final int EXTRACTING = 3;
+
+    private int phase;
+    // Where a sift-down returns to
+    private int caller;
+    private int start;
+    private int end;
+    private int node;
+    private int child;
+    private boolean compared;
+
+    HeapSortCursor(int[] array, DeltaTrace.Decoder<SortState> decoder, StepRecorder<SortState> steps) {
+        super(array, 0, ANIMATIONS, decoder, steps);
+        this.phase = INITIAL;
+        start();
+    }
+
+    private HeapSortCursor(HeapSortCursor other) {
+        super(other);
+        this.phase = other.phase;
+        this.caller = other.caller;
+        this.start = other.start;
+        this.end = other.end;
+        this.node = other.node;
+        this.child = other.child;
+        this.compared = other.compared;
+    }
+
+    @Override
+    protected void next() {
+        while (true) {
+            switch (phase) {
+                case INITIAL -> {
+                    start = length() / 2 - 1;
+                    end = length();
+                    phase = BUILD;
+                    step(NONE, -1, -1, 0, false);
+                    return;
+                }
+                case BUILD -> {
+                    if (start < 0) {
+                        phase = EXTRACTING;
+                        continue;
+                    }
+                    node = start--;
+                    caller = BUILD;
+                    phase = SIFT;
+                }
+                case SIFT -> {
+                    if (!compared) {
+                        child = 2 * node + 1;
+                        if (child >= end) {
+                            phase = caller;
+                            continue;
+                        }
+                        if (child + 1 < end) {
+                            countComparison();
+                            if (get(child + 1) > get(child)) {
+                                child++;
+                            }
+                        }
+                        compared = true;
+                        step(COMPARE, node, child, 0, false);
+                        return;
+                    }
+                    compared = false;
+                    countComparison();
+                    if (get(child) <= get(node)) {
+                        phase = caller;
+                        continue;
+                    }
+                    swap(node, child);
+                    int parent = node;
+                    node = child;
+                    step(SWAP, parent, child, 0, false);
+                    return;
+                }
+                default -> {
+                    if (end <= 1) {
+                        sorted(SortedRange.of(0, length()));
+                        step(NONE, -1, -1, 0, true);
+                        return;
+                    }
+                    end--;
+                    swap(0, end);
+                    markSorted(end);
+                    node = 0;
+                    caller = EXTRACTING;
+                    phase = SIFT;
+                    step(EXTRACT, 0, end, 0, false);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public HeapSortCursor copy() {
+        return new HeapSortCursor(this);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.heapSort;
+
+import java.io.IOException;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
+import lombok.Data;
+
+/**
+ * One step of heap sort. The heap occupies the first {@code heapSize}
+ * elements; {@code depth} is the level of {@code currentIndex} in the heap
+ * while sifting down.
+ */
+@Data
+class SortState implements BinaryEncodable {
+    private static final String[] ANIMATIONS = {"compare", "swap", "extract"};
+
+    private int[] array;
+    private int currentIndex;
+    private int comparingIndex;
+    private int heapSize;
+    private int depth;
+    private SortedRange sortedRange;
+    private boolean completed;
+    private String animation;
+
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeSignedVarint(currentIndex);
+        out.writeSignedVarint(comparingIndex);
+        out.writeVarint(heapSize);
+        out.writeVarint(depth);
+        out.writeSortedRange(sortedRange);
+        out.writeByte(completed ? 1 : 0);
+        out.writeCode(animation, ANIMATIONS);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.insertionSort;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+@Component
+class InsertionSort implements SortAlgorithm<SortState> {
+    static final String ALGORITHM = "insertion";
+
+    // Animation codes recorded per step
+    private static final int DOWN = 0;
+    private static final int COMPARING = 1;
+    private static final int SHIFT = 2;
+    private static final int FOUND_POSITION = 3;
+    private static final int INSERTED = 4;
+    private static final int DONE = 5;
+    private static final String[] ANIMATIONS = {"down", "comparing", "swap", "found-position", "inserted", "done"};
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Insertion sort";
+    }
+
+    @Override
+    public String[] animations() {
+        return ANIMATIONS;
+    }
+
+    @Override
+    public void record(int[] array, StepRecorder<SortState> steps) {
+        int[] sortedArray = array.clone();
+        steps.markSorted(0);
+
+        // Perform insertion sort and store steps
+        for (int i = 1; i < sortedArray.length; i++) {
+            int key = sortedArray[i];
+            int j = i - 1;
+            
+            // Add initial step for current iteration (moving down)
+            steps.step(DOWN, i, i, 1, false);
+            
+            while (j >= 0 && sortedArray[j] > key) {
+                steps.countComparison();
+                // Add comparison step
+                steps.step(COMPARING, i, j, 3, false);
+                
+                // Shift elements
+                sortedArray[j + 1] = sortedArray[j];
+                steps.write(j + 1, sortedArray[j]);
+                
+                // Add shift step
+                steps.step(SHIFT, j + 1, j, 4, false);
+                
+                j--;
+            }
+
+            // If we compared but didn't need to swap (element is already in correct position)
+            if (j >= 0) {
+                steps.countComparison();
+                steps.step(FOUND_POSITION, j + 1, j, 4, false);
+            }
+            
+            // Insert the key in its correct position
+            sortedArray[j + 1] = key;
+            steps.write(j + 1, key);
+            steps.markSorted(i);
+            
+            // Add step after insertion
+            steps.step(INSERTED, j + 1, j + 1, 6, false);
+        }
+
+        // Add final step
+        steps.step(DONE, sortedArray.length - 1, sortedArray.length - 1, 0, true);
+    }
+
+    @Override
+    public SortState decode(DeltaTrace.Frame frame) {
+        SortState state = new SortState();
+        state.setArray(frame.array());
+        state.setCurrentIndex(frame.first());
+        state.setComparingIndex(frame.second());
+        state.setSortedRange(frame.sortedRange());
+        state.setCompleted(frame.completed());
+        state.setAnimation(frame.animation());
+        state.setCurrentLine(frame.line());
+        return state;
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return InsertionSortCursor.countSteps(array);
+    }
+
+    @Override
+    public StepCursor<SortState> cursor(int[] array) {
+        return new InsertionSortCursor(array);
+    }
+
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 1);
+    }
+}
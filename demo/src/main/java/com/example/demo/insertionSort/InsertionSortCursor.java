@@ -0,0 +1,175 @@
+package com.example.demo.insertionSort;
+
+import com.example.demo.trace.Inversions;
+import com.example.demo.trace.OperationCounts;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepCursor;
+
+/**
+ * Insertion sort as a resumable state machine. Emits the same steps, in the
+ * same order, as {@link InsertionSort#record}.
+ */
+class InsertionSortCursor implements StepCursor<SortState> {
+    private static final int DOWN = 0;
+    private static final int COMPARING = 1;
+    private static final int SHIFT = 2;
+    private static final int FOUND_POSITION = 3;
+    private static final int INSERTED = 4;
+    private static final int DONE = 5;
+    private static final String[] ANIMATIONS = {"down", "comparing", "swap", "found-position", "inserted", "done"};
+    private static final int[] LINES = {1, 3, 4, 4, 6, 0};
+
+    private final int[] array;
+    private int position;
+    private int i;
+    private int j;
+    private int key;
+    private int sortedCount;
+    private int kind;
+    private long comparisons;
+    private long writes;
+
+    InsertionSortCursor(int[] initialArray) {
+        this.array = initialArray.clone();
+        this.sortedCount = 1;
+        this.i = 1;
+        if (array.length > 1) {
+            startIteration();
+        } else {
+            kind = DONE;
+        }
+    }
+
+    private InsertionSortCursor(InsertionSortCursor other) {
+        this.array = other.array.clone();
+        this.position = other.position;
+        this.i = other.i;
+        this.j = other.j;
+        this.key = other.key;
+        this.sortedCount = other.sortedCount;
+        this.kind = other.kind;
+        this.comparisons = other.comparisons;
+        this.writes = other.writes;
+    }
+
+    /**
+     * Per element: a "down" step, a comparing and a shift step per shifted
+     * element, a "found-position" step unless the element moves to the
+     * front, and an "inserted" step. Plus the final step.
+     */
+    static long countSteps(int[] array) {
+        int n = array.length;
+        if (n < 2) {
+            return 1;
+        }
+        long newMinimums = 0;
+        int min = array[0];
+        for (int k = 1; k < n; k++) {
+            if (array[k] < min) {
+                min = array[k];
+                newMinimums++;
+            }
+        }
+        return 2L * (n - 1) + 2 * Inversions.count(array) + (n - 1 - newMinimums) + 1;
+    }
+
+    private void startIteration() {
+        key = array[i];
+        j = i - 1;
+        kind = DOWN;
+    }
+
+    private void afterShift() {
+        if (j >= 0) {
+            comparisons++;
+        }
+        if (j >= 0 && array[j] > key) {
+            kind = COMPARING;
+        } else if (j >= 0) {
+            kind = FOUND_POSITION;
+        } else {
+            insert();
+        }
+    }
+
+    private void insert() {
+        array[j + 1] = key;
+        writes++;
+        sortedCount++;
+        kind = INSERTED;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public void advance() {
+        switch (kind) {
+            case DOWN -> afterShift();
+            case COMPARING -> {
+                array[j + 1] = array[j];
+                writes++;
+                kind = SHIFT;
+            }
+            case SHIFT -> {
+                j--;
+                afterShift();
+            }
+            case FOUND_POSITION -> insert();
+            case INSERTED -> {
+                if (++i < array.length) {
+                    startIteration();
+                } else {
+                    kind = DONE;
+                }
+            }
+            default -> throw new IllegalStateException("Trace is complete");
+        }
+        position++;
+    }
+
+    @Override
+    public SortState current() {
+        SortState state = new SortState();
+        state.setArray(array.clone());
+        state.setSortedRange(SortedRange.of(0, sortedCount));
+        state.setAnimation(ANIMATIONS[kind]);
+        state.setCurrentLine(LINES[kind]);
+        switch (kind) {
+            case DOWN -> {
+                state.setCurrentIndex(i);
+                state.setComparingIndex(i);
+            }
+            case COMPARING -> {
+                state.setCurrentIndex(i);
+                state.setComparingIndex(j);
+            }
+            case SHIFT, FOUND_POSITION -> {
+                state.setCurrentIndex(j + 1);
+                state.setComparingIndex(j);
+            }
+            case INSERTED -> {
+                state.setCurrentIndex(j + 1);
+                state.setComparingIndex(j + 1);
+            }
+            default -> {
+                state.setCurrentIndex(array.length - 1);
+                state.setComparingIndex(array.length - 1);
+                state.setCompleted(true);
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public OperationCounts counts() {
+        return new OperationCounts(comparisons, 0, writes, 0, 0);
+    }
+
+    @Override
+    public InsertionSortCursor copy() {
+        return new InsertionSortCursor(this);
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.demo.insertionSort;
 
-import java.util.List;
+import java.io.IOException;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
 import lombok.Data;
 
 @Data
-public class SortState {
+public class SortState implements BinaryEncodable {
+    private static final String[] ANIMATIONS = {"down", "comparing", "swap", "found-position", "inserted", "done"};
+
     private int[] array;
     private int currentIndex;
     private int comparingIndex;
-    private List<Integer> sortedIndices;
+    private SortedRange sortedRange;
     private boolean isCompleted;
-    private int[] initialArray;
     private String animation;
     private int currentLine;
 
@@ -39,12 +45,12 @@ public class SortState {
         this.comparingIndex = comparingIndex;
     }
 
-    public List<Integer> getSortedIndices() {
-        return sortedIndices;
+    public SortedRange getSortedRange() {
+        return sortedRange;
     }
 
-    public void setSortedIndices(List<Integer> sortedIndices) {
-        this.sortedIndices = sortedIndices;
+    public void setSortedRange(SortedRange sortedRange) {
+        this.sortedRange = sortedRange;
     }
 
     public boolean isCompleted() {
@@ -55,14 +61,6 @@ public class SortState {
         isCompleted = completed;
     }
 
-    public int[] getInitialArray() {
-        return initialArray;
-    }
-
-    public void setInitialArray(int[] initialArray) {
-        this.initialArray = initialArray;
-    }
-
     public String getAnimation() {
         return animation;
     }
@@ -78,4 +76,15 @@ public class SortState {
     public void setCurrentLine(int currentLine) {
         this.currentLine = currentLine;
     }
+
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeSignedVarint(currentIndex);
+        out.writeSignedVarint(comparingIndex);
+        out.writeSortedRange(sortedRange);
+        out.writeByte(isCompleted ? 1 : 0);
+        out.writeCode(animation, ANIMATIONS);
+        out.writeVarint(currentLine);
+    }
 }
\ No newline at end of file
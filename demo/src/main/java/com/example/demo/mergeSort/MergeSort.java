@@ -0,0 +1,101 @@
+package com.example.demo.mergeSort;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Top-down merge sort. Recording and lazy playback share
+ * {@link MergeSortCursor}.
+ */
+@Component
+class MergeSort implements SortAlgorithm<SortState> {
+    static final String ALGORITHM = "merge";
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Merge sort";
+    }
+
+    @Override
+    public String[] animations() {
+        return MergeSortCursor.ANIMATIONS;
+    }
+
+    @Override
+    public void record(int[] array, StepRecorder<SortState> steps) {
+        new MergeSortCursor(array, this::decode, steps).run();
+    }
+
+    @Override
+    public SortState decode(DeltaTrace.Frame frame) {
+        int[] registers = frame.registers();
+
+        SortState state = new SortState();
+        state.setArray(frame.array());
+        state.setBuffer(frame.aux());
+        state.setCurrentIndex(frame.first());
+        state.setComparingIndex(frame.second());
+        state.setDepth(registers[MergeSortCursor.DEPTH]);
+        state.setLow(registers[MergeSortCursor.LOW]);
+        state.setMid(registers[MergeSortCursor.MID]);
+        state.setHigh(registers[MergeSortCursor.HIGH]);
+        state.setSortedRange(frame.sortedRange());
+        state.setCompleted(frame.completed());
+        state.setAnimation(frame.animation());
+        return state;
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return new MergeSortCursor(array, this::decode, null).countSteps();
+    }
+
+    /**
+     * A range of m >= 2 elements takes a split, a copy, m writes and at most
+     * m - 1 comparisons. Each level of splitting leaves ranges of two
+     * adjacent sizes, so the bound adds up one level at a time. It is exact
+     * except for the comparisons.
+     */
+    @Override
+    public long estimateSteps(int[] array) {
+        long steps = 2;
+        // At each level, `small` ranges of `size` elements and `large` of size + 1
+        long size = array.length;
+        long small = 1;
+        long large = 0;
+        while (size >= 1) {
+            if (size >= 2) {
+                steps += small * (2 * size + 1);
+            }
+            steps += large * (2 * size + 3);
+            long half = size / 2;
+            if (size % 2 == 0) {
+                small = 2 * small + large;
+            } else {
+                large = small + 2 * large;
+            }
+            size = half;
+        }
+        return steps;
+    }
+
+    @Override
+    public StepCursor<SortState> cursor(int[] array) {
+        return new MergeSortCursor(array, this::decode, null);
+    }
+
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 2);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.mergeSort;
+
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.RecordingCursor;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Top-down merge sort as a resumable state machine, with an explicit stack
+ * of ranges in place of recursion. Each merge first copies its range into
+ * the buffer and then writes the merged run back, so buffer index and
+ * array index coincide. Only the outermost merge writes elements to their
+ * final place, which is when the sorted region grows.
+ *
+ * <p>The auxiliary buffer is the merge buffer; the depth and bounds of the
+ * current range are kept in registers.
+ */
+class MergeSortCursor extends RecordingCursor<SortState> {
+    // Animation codes recorded per step
+    static final int NONE = 0;
+    static final int SPLIT = 1;
+    static final int COPY = 2;
+    static final int COMPARE = 3;
+    static final int WRITE = 4;
+    static final String[] ANIMATIONS = {null, "split", "copy", "compare", "write"};
+
+    // Registers
+    static final int DEPTH = 0;
+    static final int LOW = 1;
+    static final int MID = 2;
+    static final int HIGH = 3;
+    static final int REGISTERS = 4;
+
+    // A range of n elements is split at most 32 times
+    private static final int MAX_FRAMES = Integer.SIZE + 1;
+
+    // Stages of a range on the stack
+    private static final int SPLITTING = 0;
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+    private static final int COPYING = 3;
+    private static final int MERGING = 4;
+
+    private final int[] stackLow;
+    private final int[] stackHigh;
+    private final int[] stackStage;
+    private int stackSize;
+    private boolean started;
+
+    private int left;
+    private int right;
+    private int out;
+    private boolean compared;
+
+    MergeSortCursor(int[] array, DeltaTrace.Decoder<SortState> decoder, StepRecorder<SortState> steps) {
+        super(array, array.length, REGISTERS, ANIMATIONS, decoder, steps);
+        this.stackLow = new int[MAX_FRAMES];
+        this.stackHigh = new int[MAX_FRAMES];
+        this.stackStage = new int[MAX_FRAMES];
+        start();
+    }
+
+    private MergeSortCursor(MergeSortCursor other) {
+        super(other);
+        this.stackLow = other.stackLow.clone();
+        this.stackHigh = other.stackHigh.clone();
+        this.stackStage = other.stackStage.clone();
+        this.stackSize = other.stackSize;
+        this.started = other.started;
+        this.left = other.left;
+        this.right = other.right;
+        this.out = other.out;
+        this.compared = other.compared;
+    }
+
+    @Override
+    protected void next() {
+        if (!started) {
+            started = true;
+            push(0, length());
+            step(NONE, -1, -1, 0, false);
+            return;
+        }
+        while (stackSize > 0) {
+            int top = stackSize - 1;
+            int low = stackLow[top];
+            int high = stackHigh[top];
+            int mid = (low + high) >>> 1;
+            switch (stackStage[top]) {
+                case SPLITTING -> {
+                    if (high - low < 2) {
+                        stackSize--;
+                        continue;
+                    }
+                    stackStage[top] = LEFT;
+                    registers(top, low, mid, high);
+                    step(SPLIT, low, high - 1, 0, false);
+                    return;
+                }
+                case LEFT -> {
+                    stackStage[top] = RIGHT;
+                    push(low, mid);
+                }
+                case RIGHT -> {
+                    stackStage[top] = COPYING;
+                    push(mid, high);
+                }
+                case COPYING -> {
+                    stackStage[top] = MERGING;
+                    registers(top, low, mid, high);
+                    for (int i = low; i < high; i++) {
+                        writeAux(i, get(i));
+                    }
+                    left = low;
+                    right = mid;
+                    out = low;
+                    compared = false;
+                    step(COPY, low, high - 1, 0, false);
+                    return;
+                }
+                default -> {
+                    if (out == high) {
+                        stackSize--;
+                        continue;
+                    }
+                    if (!compared && left < mid && right < high) {
+                        compared = true;
+                        step(COMPARE, left, right, 0, false);
+                        return;
+                    }
+                    if (left < mid && right < high) {
+                        countComparison();
+                    }
+                    boolean takeLeft = right >= high
+                        || (left < mid && getAux(left) <= getAux(right));
+                    int source = takeLeft ? left++ : right++;
+                    write(out, getAux(source));
+                    if (top == 0) {
+                        markSorted(out);
+                    }
+                    compared = false;
+                    step(WRITE, out++, source, 0, false);
+                    return;
+                }
+            }
+        }
+        sorted(SortedRange.of(0, length()));
+        step(NONE, -1, -1, 0, true);
+    }
+
+    private void push(int low, int high) {
+        stackLow[stackSize] = low;
+        stackHigh[stackSize] = high;
+        stackStage[stackSize] = SPLITTING;
+        stackSize++;
+    }
+
+    private void registers(int depth, int low, int mid, int high) {
+        register(DEPTH, depth);
+        register(LOW, low);
+        register(MID, mid);
+        register(HIGH, high - 1);
+    }
+
+    @Override
+    public MergeSortCursor copy() {
+        return new MergeSortCursor(this);
+    }
+}
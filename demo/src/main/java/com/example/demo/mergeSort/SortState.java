@@ -0,0 +1,47 @@
+package com.example.demo.mergeSort;
+
+import java.io.IOException;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
+import lombok.Data;
+
+/**
+ * One step of merge sort. {@code low}, {@code mid} and {@code high} bound
+ * the range being split or merged (inclusive; the right half starts at
+ * {@code mid}) and {@code depth} is its recursion depth. {@code buffer}
+ * is the merge buffer; only the current range of it is meaningful.
+ */
+@Data
+class SortState implements BinaryEncodable {
+    private static final String[] ANIMATIONS = {"split", "copy", "compare", "write"};
+
+    private int[] array;
+    private int[] buffer;
+    private int currentIndex;
+    private int comparingIndex;
+    private int low;
+    private int mid;
+    private int high;
+    private int depth;
+    private SortedRange sortedRange;
+    private boolean completed;
+    private String animation;
+
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeIntArray(buffer);
+        out.writeSignedVarint(currentIndex);
+        out.writeSignedVarint(comparingIndex);
+        out.writeSignedVarint(low);
+        out.writeSignedVarint(mid);
+        out.writeSignedVarint(high);
+        out.writeVarint(depth);
+        out.writeSortedRange(sortedRange);
+        out.writeByte(completed ? 1 : 0);
+        out.writeCode(animation, ANIMATIONS);
+    }
+}
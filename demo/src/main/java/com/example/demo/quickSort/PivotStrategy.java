@@ -0,0 +1,41 @@
+package com.example.demo.quickSort;
+
+/**
+ * How quicksort picks the pivot of a range. The chosen element is swapped
+ * to the end of the range before partitioning; median-of-three instead
+ * orders its three samples so the median ends up there.
+ */
+enum PivotStrategy {
+    FIRST("first"),
+    LAST("last"),
+    MIDDLE("middle"),
+    MEDIAN_OF_THREE("median-of-three"),
+    RANDOM("random");
+
+    static final PivotStrategy DEFAULT = MEDIAN_OF_THREE;
+
+    private final String id;
+
+    PivotStrategy(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * Parses a request value; null selects the default.
+     */
+    static PivotStrategy of(String id) {
+        if (id == null) {
+            return DEFAULT;
+        }
+        for (PivotStrategy strategy : values()) {
+            if (strategy.id.equals(id)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown pivot strategy: " + id);
+    }
+}
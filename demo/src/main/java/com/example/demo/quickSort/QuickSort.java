@@ -0,0 +1,119 @@
+package com.example.demo.quickSort;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.sort.SortRequest;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Quicksort with a pivot strategy chosen per request. Recording and lazy
+ * playback share {@link QuickSortCursor}.
+ */
+@Component
+class QuickSort implements SortAlgorithm<SortState> {
+    static final String ALGORITHM = "quick";
+
+    private final PivotStrategy strategy;
+
+    QuickSort() {
+        this(PivotStrategy.DEFAULT);
+    }
+
+    QuickSort(PivotStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Quicksort (" + strategy.id() + " pivot)";
+    }
+
+    @Override
+    public String[] animations() {
+        return QuickSortCursor.ANIMATIONS;
+    }
+
+    @Override
+    public QuickSort configure(SortRequest request) {
+        PivotStrategy requested = PivotStrategy.of(request.getPivot());
+        return requested == strategy ? this : new QuickSort(requested);
+    }
+
+    @Override
+    public String options() {
+        return strategy.id();
+    }
+
+    @Override
+    public void record(int[] array, StepRecorder<SortState> steps) {
+        new QuickSortCursor(array, strategy, this::decode, steps).run();
+    }
+
+    @Override
+    public SortState decode(DeltaTrace.Frame frame) {
+        int[] registers = frame.registers();
+        String animation = frame.animation();
+        // The pivot waits at the end of the range until it is placed
+        int pivotIndex = animation == null ? -1
+            : "place".equals(animation) ? frame.first() : registers[QuickSortCursor.HIGH];
+
+        SortState state = new SortState();
+        state.setArray(frame.array());
+        state.setCurrentIndex(frame.first());
+        state.setComparingIndex(frame.second());
+        state.setDepth(registers[QuickSortCursor.DEPTH]);
+        state.setLow(registers[QuickSortCursor.LOW]);
+        state.setHigh(registers[QuickSortCursor.HIGH]);
+        state.setPivotIndex(pivotIndex);
+        state.setSortedRange(frame.sortedRange());
+        state.setCompleted(frame.completed());
+        state.setAnimation(animation);
+        return state;
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return new QuickSortCursor(array, strategy, this::decode, null).countSteps();
+    }
+
+    /**
+     * Partitioning a range of m elements takes at most 2m steps. First and
+     * last pivots degrade to ranges of n, n - 1, ... elements on sorted
+     * input, which bounds them. The other pivots are taken to halve their
+     * ranges, so each of the log n levels of ranges costs 2n steps: the
+     * typical count, which random, ordered and duplicate-heavy inputs stay
+     * under but inputs built against a pivot rule exceed. Such a trace is
+     * played on demand once recording passes the eager limit.
+     */
+    @Override
+    public long estimateSteps(int[] array) {
+        long n = array.length;
+        return switch (strategy) {
+            case FIRST, LAST -> n * (n + 1);
+            default -> 2 * n * (Long.SIZE - Long.numberOfLeadingZeros(n)) + 2;
+        };
+    }
+
+    @Override
+    public StepCursor<SortState> cursor(int[] array) {
+        return new QuickSortCursor(array, strategy, this::decode, null);
+    }
+
+    /**
+     * A cursor copy carries the array and a stack that can grow to the
+     * array length.
+     */
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 1) + 3 * Footprint.intArray(length);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.demo.quickSort;
+
+import java.util.Arrays;
+
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.RecordingCursor;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepRecorder;
+
+/**
+ * Quicksort with Hoare partitioning as a resumable state machine, with an
+ * explicit stack in place of recursion. The pivot waits at the end of the
+ * range while one index scans up past smaller keys and another down past
+ * larger ones, and the keys they stop at are swapped. Both stop at keys
+ * equal to the pivot, so inputs full of duplicates split as evenly as
+ * distinct ones, and keys already in order are never moved, so sorted runs
+ * stay sorted for the pivot choice of the parts. The left part of a range
+ * is sorted before the right one, so everything left of the range being
+ * taken off the stack is in its final place and the sorted region grows
+ * from 0.
+ *
+ * <p>The depth and bounds of the range being partitioned are kept in
+ * registers; quicksort itself needs no auxiliary buffer.
+ */
+class QuickSortCursor extends RecordingCursor<SortState> {
+    // Animation codes recorded per step
+    static final int NONE = 0;
+    static final int PIVOT = 1;
+    static final int COMPARE = 2;
+    static final int SWAP = 3;
+    static final int PLACE = 4;
+    static final String[] ANIMATIONS = {null, "pivot", "compare", "swap", "place"};
+
+    // Registers
+    static final int DEPTH = 0;
+    static final int LOW = 1;
+    static final int HIGH = 2;
+    static final int REGISTERS = 3;
+
+    private static final int INITIAL = 0;
+    private static final int POP = 1;
+    private static final int SCAN_UP = 2;
+    private static final int COMPARE_UP = 3;
+    private static final int SCAN_DOWN = 4;
+    private static final int COMPARE_DOWN = 5;
+
+    private final PivotStrategy strategy;
+    private int random;
+
+    private int[] stackLow;
+    private int[] stackHigh;
+    private int[] stackDepth;
+    private int stackSize;
+
+    private int phase;
+    private int low;
+    private int high;
+    private int depth;
+    // Keys left of up are at most the pivot, keys right of down at least it
+    private int up;
+    private int down;
+
+    QuickSortCursor(int[] array, PivotStrategy strategy, DeltaTrace.Decoder<SortState> decoder,
+                    StepRecorder<SortState> steps) {
+        super(array, 0, REGISTERS, ANIMATIONS, decoder, steps);
+        this.strategy = strategy;
+        this.random = Arrays.hashCode(array) | 1;
+        this.stackLow = new int[16];
+        this.stackHigh = new int[16];
+        this.stackDepth = new int[16];
+        this.phase = INITIAL;
+        start();
+    }
+
+    private QuickSortCursor(QuickSortCursor other) {
+        super(other);
+        this.strategy = other.strategy;
+        this.random = other.random;
+        this.stackLow = other.stackLow.clone();
+        this.stackHigh = other.stackHigh.clone();
+        this.stackDepth = other.stackDepth.clone();
+        this.stackSize = other.stackSize;
+        this.phase = other.phase;
+        this.low = other.low;
+        this.high = other.high;
+        this.depth = other.depth;
+        this.up = other.up;
+        this.down = other.down;
+    }
+
+    @Override
+    protected void next() {
+        while (true) {
+            switch (phase) {
+                case INITIAL -> {
+                    push(0, length() - 1, 0);
+                    phase = POP;
+                    step(NONE, -1, -1, 0, false);
+                    return;
+                }
+                case POP -> {
+                    if (stackSize == 0) {
+                        sorted(SortedRange.of(0, length()));
+                        step(NONE, -1, -1, 0, true);
+                        return;
+                    }
+                    stackSize--;
+                    low = stackLow[stackSize];
+                    high = stackHigh[stackSize];
+                    depth = stackDepth[stackSize];
+                    if (high - low < 1) {
+                        sorted(SortedRange.of(0, high + 1));
+                        continue;
+                    }
+                    sorted(SortedRange.of(0, low));
+                    register(DEPTH, depth);
+                    register(LOW, low);
+                    register(HIGH, high);
+
+                    int pivot = choosePivot();
+                    if (pivot != high) {
+                        swap(pivot, high);
+                    }
+                    up = low;
+                    down = high - 1;
+                    phase = SCAN_UP;
+                    step(PIVOT, high, pivot, 0, false);
+                    return;
+                }
+                case SCAN_UP -> {
+                    if (up < high) {
+                        phase = COMPARE_UP;
+                        step(COMPARE, up, high, 0, false);
+                        return;
+                    }
+                    phase = SCAN_DOWN;
+                }
+                case COMPARE_UP -> {
+                    countComparison();
+                    if (get(up) < get(high)) {
+                        up++;
+                        phase = SCAN_UP;
+                    } else {
+                        phase = SCAN_DOWN;
+                    }
+                }
+                case SCAN_DOWN -> {
+                    // Once the indices meet, every key left of up is at most
+                    // the pivot and every key from up on at least it
+                    if (down > up) {
+                        phase = COMPARE_DOWN;
+                        step(COMPARE, down, high, 0, false);
+                        return;
+                    }
+                    if (up != high) {
+                        swap(up, high);
+                    }
+                    // Pushed right first so the left part is sorted first
+                    push(up + 1, high, depth + 1);
+                    push(low, up - 1, depth + 1);
+                    phase = POP;
+                    step(PLACE, up, high, 0, false);
+                    return;
+                }
+                default -> {
+                    countComparison();
+                    if (get(down) > get(high)) {
+                        down--;
+                        phase = SCAN_DOWN;
+                        continue;
+                    }
+                    int i = up++;
+                    int j = down--;
+                    swap(i, j);
+                    phase = SCAN_UP;
+                    step(SWAP, i, j, 0, false);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void push(int from, int to, int frameDepth) {
+        if (stackSize == stackLow.length) {
+            stackLow = Arrays.copyOf(stackLow, stackSize * 2);
+            stackHigh = Arrays.copyOf(stackHigh, stackSize * 2);
+            stackDepth = Arrays.copyOf(stackDepth, stackSize * 2);
+        }
+        stackLow[stackSize] = from;
+        stackHigh[stackSize] = to;
+        stackDepth[stackSize] = frameDepth;
+        stackSize++;
+    }
+
+    private int choosePivot() {
+        int middle = (low + high) >>> 1;
+        return switch (strategy) {
+            case FIRST -> low;
+            case LAST -> high;
+            case MIDDLE -> middle;
+            case RANDOM -> low + Math.floorMod(nextRandom(), high - low + 1);
+            case MEDIAN_OF_THREE -> medianOfThree(low, middle, high);
+        };
+    }
+
+    /**
+     * Orders the three samples so the smallest is first, the median last and
+     * the largest in the middle, and returns the last as the pivot. Left in
+     * place, the sample the pivot is swapped with would land among the keys
+     * as an outlier, and on sorted or reversed input the parts would start
+     * or end with it and pick poor pivots in turn.
+     */
+    private int medianOfThree(int first, int middle, int last) {
+        if (first == middle) {
+            return last;
+        }
+        countComparison();
+        if (get(middle) < get(first)) {
+            swap(first, middle);
+        }
+        countComparison();
+        if (get(last) < get(first)) {
+            swap(first, last);
+        }
+        countComparison();
+        if (get(middle) < get(last)) {
+            swap(middle, last);
+        }
+        return last;
+    }
+
+    /**
+     * Xorshift seeded from the input, so a given input always produces the
+     * same trace and copies resume with the same sequence.
+     */
+    private int nextRandom() {
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        return random;
+    }
+
+    @Override
+    public QuickSortCursor copy() {
+        return new QuickSortCursor(this);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.quickSort;
+
+import java.io.IOException;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
+import lombok.Data;
+
+/**
+ * One step of quicksort. {@code low} and {@code high} bound the range being
+ * partitioned (inclusive) and {@code depth} is its recursion depth; the
+ * pivot sits at {@code high} until it is placed.
+ */
+@Data
+class SortState implements BinaryEncodable {
+    private static final String[] ANIMATIONS = {"pivot", "compare", "swap", "place"};
+
+    private int[] array;
+    private int currentIndex;
+    private int comparingIndex;
+    private int pivotIndex;
+    private int low;
+    private int high;
+    private int depth;
+    private SortedRange sortedRange;
+    private boolean completed;
+    private String animation;
+
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeSignedVarint(currentIndex);
+        out.writeSignedVarint(comparingIndex);
+        out.writeSignedVarint(pivotIndex);
+        out.writeSignedVarint(low);
+        out.writeSignedVarint(high);
+        out.writeVarint(depth);
+        out.writeSortedRange(sortedRange);
+        out.writeByte(completed ? 1 : 0);
+        out.writeCode(animation, ANIMATIONS);
+    }
+}
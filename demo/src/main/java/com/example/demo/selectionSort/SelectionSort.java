@@ -0,0 +1,98 @@
+package com.example.demo.selectionSort;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Footprint;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+
+@Component
+class SelectionSort implements SortAlgorithm<SortingState> {
+    static final String ALGORITHM = "selection";
+    private static final int NO_ANIMATION = 0;
+    private static final String[] ANIMATIONS = {null};
+
+    @Override
+    public String name() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String displayName() {
+        return "Selection sort";
+    }
+
+    @Override
+    public String[] animations() {
+        return ANIMATIONS;
+    }
+
+    /**
+     * Records the trace on plain int columns; states are only built when a
+     * step is read back.
+     */
+    @Override
+    public void record(int[] initialArray, StepRecorder<SortingState> recorder) {
+        int[] arr = initialArray.clone();
+        int n = arr.length;
+
+        for (int i = 0; i < n - 1; i++) {
+            int minIdx = i;
+            
+            for (int j = i + 1; j < n; j++) {
+                recorder.step(NO_ANIMATION, i, minIdx, 3, false);
+                recorder.countComparison();
+                if (arr[j] < arr[minIdx]) {
+                    minIdx = j;
+                }
+            }
+            
+            recorder.step(NO_ANIMATION, i, minIdx, 6, false);
+            // Swap found minimum element with first element
+            if (minIdx != i) {
+                int temp = arr[minIdx];
+                arr[minIdx] = arr[i];
+                arr[i] = temp;
+                recorder.swap(i, minIdx);
+            }
+            
+            // Add to sorted indices
+            recorder.markSorted(i);
+        }
+
+        recorder.step(NO_ANIMATION, n - 1, n - 1, 6, false);
+        
+        // Add final state with all indices sorted
+        recorder.markSorted(n - 1);
+        recorder.step(NO_ANIMATION, n - 1, n - 1, 7, true);
+    }
+
+    @Override
+    public SortingState decode(DeltaTrace.Frame frame) {
+        return new SortingState(
+            frame.array(),
+            frame.first(),
+            frame.second(),
+            frame.sortedRange(),
+            frame.completed(),
+            frame.line()
+        );
+    }
+
+    @Override
+    public long countSteps(int[] array) {
+        return SelectionSortCursor.countSteps(array);
+    }
+
+    @Override
+    public StepCursor<SortingState> cursor(int[] array) {
+        return new SelectionSortCursor(array);
+    }
+
+    @Override
+    public long stepBytes(int length) {
+        return Footprint.state(length, 1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.selectionSort;
+
+import com.example.demo.trace.OperationCounts;
+import com.example.demo.trace.SortedRange;
+import com.example.demo.trace.StepCursor;
+
+/**
+ * Selection sort as a resumable state machine. Emits the same steps, in the
+ * same order, as {@link SelectionSort#record}.
+ */
+class SelectionSortCursor implements StepCursor<SortingState> {
+    private static final int SCAN = 0;
+    private static final int PICKED = 1;
+    private static final int TAIL = 2;
+    private static final int DONE = 3;
+
+    private final int[] array;
+    private int position;
+    private int i;
+    private int j;
+    private int minIdx;
+    private int kind;
+    private long comparisons;
+    private long swaps;
+
+    SelectionSortCursor(int[] initialArray) {
+        this.array = initialArray.clone();
+        if (array.length > 1) {
+            j = 1;
+            kind = SCAN;
+        } else {
+            kind = TAIL;
+        }
+    }
+
+    private SelectionSortCursor(SelectionSortCursor other) {
+        this.array = other.array.clone();
+        this.position = other.position;
+        this.i = other.i;
+        this.j = other.j;
+        this.minIdx = other.minIdx;
+        this.kind = other.kind;
+        this.comparisons = other.comparisons;
+        this.swaps = other.swaps;
+    }
+
+    /**
+     * One step per comparison, one per pass once the minimum is found, and
+     * two final steps. Independent of the values.
+     */
+    static long countSteps(int[] array) {
+        long n = array.length;
+        return n * (n - 1) / 2 + Math.max(n - 1, 0) + 2;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public void advance() {
+        switch (kind) {
+            case SCAN -> {
+                comparisons++;
+                if (array[j] < array[minIdx]) {
+                    minIdx = j;
+                }
+                if (++j == array.length) {
+                    kind = PICKED;
+                }
+            }
+            case PICKED -> {
+                // Recording skips the swap when the minimum is already in place
+                if (minIdx != i) {
+                    swaps++;
+                }
+                int temp = array[minIdx];
+                array[minIdx] = array[i];
+                array[i] = temp;
+                if (++i < array.length - 1) {
+                    minIdx = i;
+                    j = i + 1;
+                    kind = SCAN;
+                } else {
+                    kind = TAIL;
+                }
+            }
+            case TAIL -> kind = DONE;
+            default -> throw new IllegalStateException("Trace is complete");
+        }
+        position++;
+    }
+
+    @Override
+    public SortingState current() {
+        int n = array.length;
+        int sortedCount = kind == SCAN || kind == PICKED ? i : Math.max(n - 1, 0);
+        SortedRange sortedRange = SortedRange.of(0, sortedCount);
+        if (kind == DONE) {
+            sortedRange = sortedRange.extend(n - 1);
+        }
+        boolean scanning = kind == SCAN || kind == PICKED;
+        return new SortingState(
+            array.clone(),
+            scanning ? i : n - 1,
+            scanning ? minIdx : n - 1,
+            sortedRange,
+            kind == DONE,
+            kind == SCAN ? 3 : kind == DONE ? 7 : 6
+        );
+    }
+
+    @Override
+    public OperationCounts counts() {
+        return new OperationCounts(comparisons, swaps, 2 * swaps, 0, 0);
+    }
+
+    @Override
+    public SelectionSortCursor copy() {
+        return new SelectionSortCursor(this);
+    }
+}
@@ -1,29 +1,42 @@
 package com.example.demo.selectionSort;
 
-import java.util.List;
+import java.io.IOException;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.BinaryStepWriter;
+import com.example.demo.trace.SortedRange;
+
 import lombok.Data;
 
 @Data
-public class SortingState {
-    private List<Integer> array;
+public class SortingState implements BinaryEncodable {
+    private int[] array;
     private int currentIndex;
     private int minIndex;
-    private List<Integer> sortedIndices;
+    private SortedRange sortedRange;
     private boolean isCompleted;
-    private List<Integer> initialArray;
     private int currentLine;
 
-    public SortingState(List<Integer> array, int currentIndex, int minIndex, 
-    List<Integer> sortedIndices, boolean isCompleted, List<Integer>  initialArray, int currentLine) {
+    public SortingState(int[] array, int currentIndex, int minIndex, 
+    SortedRange sortedRange, boolean isCompleted, int currentLine) {
 this.array = array;
 this.currentIndex = currentIndex;
 this.minIndex = minIndex;
-this.sortedIndices = sortedIndices;
+this.sortedRange = sortedRange;
 this.isCompleted = isCompleted;
-this.initialArray = initialArray;
 this.currentLine = currentLine;
 }
 
 public SortingState() {}
 
+    @Override
+    public void writeTo(BinaryStepWriter out) throws IOException {
+        out.writeIntArray(array);
+        out.writeSignedVarint(currentIndex);
+        out.writeSignedVarint(minIndex);
+        out.writeSortedRange(sortedRange);
+        out.writeByte(isCompleted ? 1 : 0);
+        out.writeVarint(currentLine);
+    }
+
 }
\ No newline at end of file
@@ -1,9 +0,0 @@
-package com.example.demo.selectionSort;
-import lombok.Data;
-
-@Data
-public class SortingStep {
-    private int[] array;
-    private int currentIndex;
-    private boolean reset;
-}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.demo.sort;
+
+import java.util.List;
+
+public class BatchSortRequest {
+    private List<int[]> arrays;
+    // Options shared by every array, as in SortRequest
+    private String mode;
+    private String pivot;
+    private String granularity;
+    private Integer every;
+
+    public BatchSortRequest() {}
+
+    public List<int[]> getArrays() {
+        return arrays;
+    }
+
+    public void setArrays(List<int[]> arrays) {
+        this.arrays = arrays;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getPivot() {
+        return pivot;
+    }
+
+    public void setPivot(String pivot) {
+        this.pivot = pivot;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public Integer getEvery() {
+        return every;
+    }
+
+    public void setEvery(Integer every) {
+        this.every = every;
+    }
+
+    /**
+     * The single-array request for one of the arrays.
+     */
+    public SortRequest request(int[] array) {
+        SortRequest request = new SortRequest();
+        request.setArray(array);
+        request.setMode(mode);
+        request.setPivot(pivot);
+        request.setGranularity(granularity);
+        request.setEvery(every);
+        return request;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.sort;
+
+import org.springframework.web.bind.annotation.*;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/sort/compare")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class CompareController {
+
+    private final SortEngine sortEngine;
+
+    @PostMapping
+    public CompareResponse compare(@RequestBody CompareRequest request) {
+        return sortEngine.compare(request);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.sort;
+
+import java.util.List;
+
+public class CompareRequest {
+    private int[] array;
+    // Algorithm names to race; every registered algorithm when missing
+    private List<String> algorithms;
+    // Pivot strategy for quicksort, as in SortRequest
+    private String pivot;
+    // Number of timeline entries to sample for side-by-side playback; no timeline when missing
+    private Integer ticks;
+
+    public CompareRequest() {}
+
+    public int[] getArray() {
+        return array;
+    }
+
+    public void setArray(int[] array) {
+        this.array = array;
+    }
+
+    public List<String> getAlgorithms() {
+        return algorithms;
+    }
+
+    public void setAlgorithms(List<String> algorithms) {
+        this.algorithms = algorithms;
+    }
+
+    public String getPivot() {
+        return pivot;
+    }
+
+    public void setPivot(String pivot) {
+        this.pivot = pivot;
+    }
+
+    public Integer getTicks() {
+        return ticks;
+    }
+
+    public void setTicks(Integer ticks) {
+        this.ticks = ticks;
+    }
+}
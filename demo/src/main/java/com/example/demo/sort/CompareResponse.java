@@ -0,0 +1,17 @@
+package com.example.demo.sort;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Race results in the order the algorithms were requested. Each timeline
+ * entry holds one step index per result, in the same order, for playing
+ * the traces side by side: all advance one step per tick and an algorithm
+ * that has finished stays on its final step. Entries are sampled evenly
+ * from the longest trace; a result without a trace gets -1.
+ */
+public record CompareResponse(int[] array,
+                              List<RaceResult> results,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) List<int[]> timeline) {
+}
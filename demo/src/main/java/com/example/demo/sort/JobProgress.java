@@ -0,0 +1,10 @@
+package com.example.demo.sort;
+
+/**
+ * How far the generation of a trace has got. {@code availableSteps} can be
+ * fetched already; {@code totalSteps} is the count admission estimated
+ * while the job runs, and the exact count once it is done. {@code message}
+ * explains a failed job.
+ */
+public record JobProgress(String traceId, String status, int availableSteps, long totalSteps, String message) {
+}
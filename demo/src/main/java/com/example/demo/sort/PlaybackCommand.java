@@ -0,0 +1,58 @@
+package com.example.demo.sort;
+
+/**
+ * A control message sent by a client of the playback channel.
+ */
+public class PlaybackCommand {
+    // "subscribe", "play", "pause", "seek" or "speed"
+    private String type;
+    // The trace to play, for "subscribe"
+    private String algorithm;
+    private String traceId;
+    // Steps per second, for "subscribe" and "speed"
+    private Double rate;
+    // The step to jump to, for "seek"
+    private Integer step;
+
+    public PlaybackCommand() {}
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public Double getRate() {
+        return rate;
+    }
+
+    public void setRate(Double rate) {
+        this.rate = rate;
+    }
+
+    public Integer getStep() {
+        return step;
+    }
+
+    public void setStep(Integer step) {
+        this.step = step;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.sort;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class PlaybackConfig implements WebSocketConfigurer {
+
+    private final PlaybackHandler playbackHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Same origins as the REST controllers' @CrossOrigin
+        registry.addHandler(playbackHandler, PlaybackHandler.PATH).setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.demo.sort;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.example.demo.trace.AsyncTrace;
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.PlaybackFrames;
+import com.example.demo.trace.StepRange;
+import com.example.demo.trace.Trace;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Plays a trace over a WebSocket at a rate the client picks, instead of the
+ * client polling one step per tick. The client subscribes to a trace with
+ * a rate in steps per second and controls playback with {@code play},
+ * {@code pause}, {@code seek} and {@code speed} messages, see
+ * {@link PlaybackCommand}; the server pushes {@code frame} messages holding
+ * the steps that fell due, and {@code end} once the last step is sent.
+ *
+ * <p>One ticker drives every viewer at the frame rate cap. Each tick a
+ * viewer earns {@code rate} steps per second of playback, so above the cap
+ * a frame carries several steps. A frame is sent on a virtual thread, and
+ * while a viewer's previous frame is still being written its steps keep
+ * accumulating, so a slow connection gets fewer, larger frames rather than
+ * a growing backlog. Steps are encoded through {@link PlaybackFrames},
+ * which viewers of the same trace id share.
+ */
+@Component
+public class PlaybackHandler extends TextWebSocketHandler {
+    public static final String PATH = "/api/sort/playback";
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT = 4 * 1024 * 1024;
+
+    /**
+     * Playback state of one connection, guarded by its own lock.
+     */
+    private static final class Viewer {
+        final WebSocketSession session;
+        String traceId;
+        Trace<BinaryEncodable> trace;
+        int position;
+        double rate;
+        boolean playing;
+        // Steps earned but not sent yet
+        double credit;
+        long lastTick;
+        // The step at the position is sent on the next tick, even when paused
+        boolean seeked;
+        boolean sending;
+
+        Viewer(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    private final SortEngine sortEngine;
+    private final PlaybackFrames frames;
+    private final ObjectMapper objectMapper;
+    private final double maxRate;
+    private final Map<String, Viewer> viewers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("playback-ticker").daemon().factory());
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PlaybackHandler(SortEngine sortEngine, PlaybackFrames frames, ObjectMapper objectMapper,
+                           @Value("${playback.max-rate:1000}") double maxRate,
+                           @Value("${playback.max-frame-rate:30}") int maxFrameRate) {
+        this.sortEngine = sortEngine;
+        this.frames = frames;
+        this.objectMapper = objectMapper;
+        this.maxRate = maxRate;
+        long frameNanos = TimeUnit.SECONDS.toNanos(1) / maxFrameRate;
+        ticker.scheduleAtFixedRate(this::tick, frameNanos, frameNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        viewers.put(session.getId(), new Viewer(
+            new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT)));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        viewers.remove(session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Viewer viewer = viewers.get(session.getId());
+        if (viewer == null) {
+            return;
+        }
+        try {
+            PlaybackCommand command = objectMapper.readValue(message.getPayload(), PlaybackCommand.class);
+            send(viewer, handle(viewer, command));
+        } catch (JsonProcessingException e) {
+            send(viewer, error("Malformed playback command"));
+        } catch (IllegalArgumentException e) {
+            send(viewer, error(e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> handle(Viewer viewer, PlaybackCommand command) {
+        String type = command.getType() == null ? "" : command.getType();
+        if (type.equals("subscribe")) {
+            return subscribe(viewer, command);
+        }
+        synchronized (viewer) {
+            if (viewer.trace == null) {
+                throw new IllegalArgumentException("Subscribe to a trace first");
+            }
+            switch (type) {
+                case "play" -> {
+                    viewer.playing = true;
+                    viewer.lastTick = System.nanoTime();
+                }
+                case "pause" -> {
+                    viewer.playing = false;
+                    viewer.credit = 0;
+                }
+                case "seek" -> {
+                    Integer step = command.getStep();
+                    if (step == null || step < 0 || step >= viewer.trace.size()) {
+                        throw new IllegalArgumentException("Invalid step number");
+                    }
+                    viewer.position = step;
+                    viewer.seeked = true;
+                    viewer.credit = 0;
+                }
+                case "speed" -> viewer.rate = checkRate(command.getRate());
+                default -> throw new IllegalArgumentException("Unknown playback command: " + command.getType());
+            }
+            return state(viewer);
+        }
+    }
+
+    /**
+     * Starts the viewer paused at the first step, which is sent right away.
+     */
+    private Map<String, Object> subscribe(Viewer viewer, PlaybackCommand command) {
+        double rate = checkRate(command.getRate());
+        if (command.getAlgorithm() == null) {
+            throw new IllegalArgumentException("Algorithm is required");
+        }
+        Trace<BinaryEncodable> trace = sortEngine.getTrace(command.getAlgorithm(), command.getTraceId());
+        synchronized (viewer) {
+            viewer.traceId = command.getTraceId();
+            viewer.trace = trace;
+            viewer.rate = rate;
+            viewer.position = 0;
+            viewer.playing = false;
+            viewer.credit = 0;
+            viewer.seeked = true;
+            Map<String, Object> ready = state(viewer);
+            ready.put("type", "ready");
+            ready.put("algorithm", trace.getAlgorithm());
+            ready.put("traceId", command.getTraceId());
+            return ready;
+        }
+    }
+
+    private double checkRate(Double rate) {
+        if (rate == null || !(rate > 0) || rate > maxRate) {
+            throw new IllegalArgumentException("Playback rate must be above 0 and at most " + maxRate
+                + " steps per second");
+        }
+        return rate;
+    }
+
+    private static Map<String, Object> state(Viewer viewer) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("type", "state");
+        state.put("position", viewer.position);
+        state.put("totalSteps", viewer.trace.size());
+        state.put("rate", viewer.rate);
+        state.put("playing", viewer.playing);
+        return state;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("type", "error");
+        error.put("message", message);
+        return error;
+    }
+
+    // An exception would cancel the schedule, so none may escape a tick
+    private void tick() {
+        long now = System.nanoTime();
+        for (Viewer viewer : viewers.values()) {
+            try {
+                tick(viewer, now);
+            } catch (RuntimeException e) {
+                senders.execute(() -> send(viewer, error("Playback failed: " + e.getMessage())));
+            }
+        }
+    }
+
+    private void tick(Viewer viewer, long now) {
+        String traceId;
+        Trace<BinaryEncodable> trace;
+        int from;
+        int to;
+        Map<String, Object> message = null;
+        synchronized (viewer) {
+            if (viewer.trace == null) {
+                return;
+            }
+            if (viewer.playing) {
+                viewer.credit = Math.min(viewer.credit + viewer.rate * (now - viewer.lastTick) / 1e9,
+                    StepRange.MAX_STEPS);
+            }
+            viewer.lastTick = now;
+            if (viewer.sending) {
+                return;
+            }
+            traceId = viewer.traceId;
+            trace = viewer.trace;
+            int available = trace.size();
+            from = viewer.position;
+            if (viewer.seeked && from < available) {
+                viewer.seeked = false;
+                viewer.credit = Math.max(0, viewer.credit - 1);
+                to = from + 1;
+            } else if (!viewer.playing) {
+                return;
+            } else if (from >= available) {
+                if (trace instanceof AsyncTrace<?> job) {
+                    if (job.status() == AsyncTrace.Status.RUNNING) {
+                        return;
+                    }
+                    if (job.status() == AsyncTrace.Status.FAILED) {
+                        message = error("Trace generation failed: " + job.failure());
+                    }
+                }
+                if (message == null) {
+                    message = Map.of("type", "end");
+                }
+                viewer.playing = false;
+                viewer.credit = 0;
+                to = from;
+            } else {
+                int steps = (int) Math.min(viewer.credit, available - from);
+                if (steps == 0) {
+                    return;
+                }
+                viewer.credit -= steps;
+                to = from + steps;
+            }
+            viewer.position = to;
+            viewer.sending = true;
+        }
+        Map<String, Object> finished = message;
+        senders.execute(() -> {
+            try {
+                if (finished != null) {
+                    send(viewer, finished);
+                } else {
+                    send(viewer, frame(traceId, trace, from, to));
+                }
+            } catch (RuntimeException e) {
+                send(viewer, error("Playback failed: " + e.getMessage()));
+            } finally {
+                synchronized (viewer) {
+                    viewer.sending = false;
+                }
+            }
+        });
+    }
+
+    private String frame(String traceId, Trace<BinaryEncodable> trace, int from, int to) {
+        StringBuilder json = new StringBuilder(64)
+            .append("{\"type\":\"frame\",\"from\":").append(from)
+            .append(",\"to\":").append(to)
+            .append(",\"totalSteps\":").append(trace.size())
+            .append(",\"steps\":[");
+        frames.append(traceId, trace, from, to, json);
+        return json.append("]}").toString();
+    }
+
+    private void send(Viewer viewer, Map<String, Object> message) {
+        try {
+            send(viewer, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode playback message", e);
+        }
+    }
+
+    // A connection that cannot take a message is closed by its decorator
+    private void send(Viewer viewer, String message) {
+        if (!viewer.session.isOpen()) {
+            return;
+        }
+        try {
+            viewer.session.sendMessage(new TextMessage(message));
+        } catch (IOException | RuntimeException e) {
+            viewers.remove(viewer.session.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+    }
+}
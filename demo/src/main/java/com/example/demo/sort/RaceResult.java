@@ -0,0 +1,18 @@
+package com.example.demo.sort;
+
+import com.example.demo.trace.OperationCounts;
+
+/**
+ * One algorithm's run in a race. {@code wallNanos} and
+ * {@code allocatedBytes} cover recording the trace on one thread, with the
+ * other algorithms running alongside; {@code allocatedBytes} is -1 where
+ * the JVM does not measure it. An algorithm that could not run has no
+ * trace id and says why in {@code message}.
+ */
+public record RaceResult(String algorithm, String displayName, String traceId, int steps,
+                         OperationCounts operations, long wallNanos, long allocatedBytes, String message) {
+
+    static RaceResult rejected(SortAlgorithm<?> algorithm, String message) {
+        return new RaceResult(algorithm.name(), algorithm.displayName(), null, 0, null, 0, 0, message);
+    }
+}
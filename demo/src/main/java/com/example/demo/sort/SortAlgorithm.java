@@ -0,0 +1,89 @@
+package com.example.demo.sort;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRecorder;
+import com.example.demo.trace.TraceDecoder;
+
+/**
+ * A sorting algorithm that can be played back step by step. Implementations
+ * are Spring components; {@link SortEngine} looks them up by {@link #name()},
+ * which is also their path segment under {@code /api/sort}.
+ *
+ * <p>An algorithm describes its steps twice: once as a generator writing to
+ * a {@link StepRecorder} for traces built up front, and once as a
+ * {@link StepCursor} for traces generated on demand. Both must produce the
+ * same steps.
+ */
+public interface SortAlgorithm<S extends BinaryEncodable> extends TraceDecoder<S> {
+
+    @Override
+    String name();
+
+    /**
+     * Used in response messages, e.g. "Bubble sort".
+     */
+    String displayName();
+
+    /**
+     * Animation names indexed by the codes passed to {@link StepRecorder#step}.
+     */
+    String[] animations();
+
+    @Override
+    S decode(DeltaTrace.Frame frame);
+
+    /**
+     * Rejects input the algorithm cannot sort with an
+     * {@link IllegalArgumentException}. The array is never null.
+     */
+    default void validate(int[] array) {
+    }
+
+    /**
+     * The algorithm to run for a request. Algorithms with options return a
+     * configured copy, which keeps the same {@link #name()}.
+     */
+    default SortAlgorithm<S> configure(SortRequest request) {
+        return this;
+    }
+
+    /**
+     * Identifies the configured options, so traces recorded with different
+     * options are cached apart. Empty for algorithms without options.
+     */
+    default String options() {
+        return "";
+    }
+
+    void record(int[] array, StepRecorder<S> steps);
+
+    /**
+     * The exact number of steps in a full trace of {@code array}. This may
+     * run the algorithm, so it is only worked out for a trace that is about
+     * to be generated.
+     */
+    long countSteps(int[] array);
+
+    /**
+     * The number of steps in a full trace of {@code array}, worked out
+     * without running the algorithm so that admission control can afford it
+     * on every request. It is exact where the count has a closed form, which
+     * is the default, and otherwise a bound from the input length, or the
+     * typical count where the worst case is too rare to plan for. A trace
+     * admitted up front that outgrows its estimate is played on demand
+     * instead.
+     */
+    default long estimateSteps(int[] array) {
+        return countSteps(array);
+    }
+
+    StepCursor<S> cursor(int[] array);
+
+    /**
+     * Approximate heap size of one decoded step for an array of the given
+     * length.
+     */
+    long stepBytes(int length);
+}
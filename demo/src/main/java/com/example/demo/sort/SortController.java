@@ -0,0 +1,112 @@
+package com.example.demo.sort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.StepCaching;
+import com.example.demo.trace.StepRange;
+import com.example.demo.trace.StepStreamer;
+import com.example.demo.trace.TraceStore;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/sort/{algorithm}")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class SortController {
+
+    private final SortEngine sortEngine;
+
+    private final StepStreamer stepStreamer;
+
+    private final StepCaching stepCaching;
+
+    @PostMapping("/init")
+    public SortResponse initSort(@PathVariable String algorithm, @RequestBody SortRequest request) {
+        return sortEngine.initSort(algorithm, request);
+    }
+
+    @PostMapping("/init/batch")
+    public List<SortResponse> initBatch(@PathVariable String algorithm, @RequestBody BatchSortRequest request) {
+        return sortEngine.initBatch(algorithm, request);
+    }
+
+    @GetMapping("/steps")
+    public ResponseEntity<List<BinaryEncodable>> getAllSteps(@PathVariable String algorithm,
+                                                             @RequestParam String traceId,
+                                                             HttpServletRequest request) {
+        return stepCaching.immutable(request, traceId, "steps", isComplete(algorithm, traceId),
+            () -> ResponseEntity.ok(sortEngine.getAllSteps(algorithm, traceId)));
+    }
+
+    @GetMapping(value = "/steps", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> downloadSteps(@PathVariable String algorithm,
+                                                               @RequestParam String traceId,
+                                                               HttpServletRequest request) {
+        return stepCaching.immutable(request, traceId, "steps", MediaType.APPLICATION_OCTET_STREAM,
+            isComplete(algorithm, traceId), () -> {
+                try {
+                    TraceStore.EncodedSteps encoded =
+                        sortEngine.encodedSteps(algorithm, traceId, StepCaching.acceptsGzip(request));
+                    return encoded != null
+                        ? stepStreamer.file(encoded, request)
+                        : stepStreamer.binary(sortEngine.getAllSteps(algorithm, traceId));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    @GetMapping(value = "/steps", params = "from")
+    public ResponseEntity<StepRange<BinaryEncodable>> getStepRange(@PathVariable String algorithm,
+                                                                   @RequestParam int from,
+                                                                   @RequestParam(required = false) Integer to,
+                                                                   @RequestParam String traceId,
+                                                                   HttpServletRequest request) {
+        return stepCaching.immutable(request, traceId, "steps/" + from + "-" + to, isComplete(algorithm, traceId),
+            () -> ResponseEntity.ok(sortEngine.getStepRange(algorithm, traceId, from, to)));
+    }
+
+    @GetMapping(value = "/steps/stream", produces = StepStreamer.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamSteps(@PathVariable String algorithm,
+                                                             @RequestParam String traceId) {
+        return stepStreamer.ndjson(sortEngine.getAllSteps(algorithm, traceId));
+    }
+
+    @GetMapping(value = "/steps/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStepEvents(@PathVariable String algorithm,
+                                                                  @RequestParam String traceId) {
+        return stepStreamer.events(sortEngine.getAllSteps(algorithm, traceId));
+    }
+
+    @GetMapping("/jobs/{traceId}")
+    public JobProgress getProgress(@PathVariable String algorithm, @PathVariable String traceId) {
+        return sortEngine.getProgress(algorithm, traceId);
+    }
+
+    // A step that exists never changes, even while its trace is generated. It
+    // is looked up before revalidating, so an unknown or expired trace or a
+    // step not generated yet is never answered 304
+    @GetMapping("/step/{stepNumber}")
+    public ResponseEntity<StepResponse> getStep(@PathVariable String algorithm,
+                                                @PathVariable int stepNumber,
+                                                @RequestParam String traceId,
+                                                HttpServletRequest request) {
+        StepResponse step = sortEngine.getStep(algorithm, traceId, stepNumber);
+        return stepCaching.immutable(request, traceId, "step/" + stepNumber, true, () -> ResponseEntity.ok(step));
+    }
+
+    private boolean isComplete(String algorithm, String traceId) {
+        return sortEngine.isComplete(algorithm, traceId);
+    }
+}
@@ -0,0 +1,443 @@
+package com.example.demo.sort;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.trace.AsyncTrace;
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Granularity;
+import com.example.demo.trace.LazyTrace;
+import com.example.demo.trace.MappedTraces;
+import com.example.demo.trace.SkippingCursor;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.StepRange;
+import com.example.demo.trace.StepRecorder;
+import com.example.demo.trace.Trace;
+import com.example.demo.trace.TraceCache;
+import com.example.demo.trace.TraceStore;
+import com.example.demo.trace.TraceTooLargeException;
+
+/**
+ * Generates, caches and serves traces for every registered
+ * {@link SortAlgorithm}. This is the only place traces are built, so
+ * caching, storage and encoding apply to all algorithms alike.
+ *
+ * <p>An {@code "async"} request admitted for eager recording is recorded on
+ * a {@link TraceJobs} thread instead of the request thread. Its id is stored
+ * right away as an {@link AsyncTrace}, whose steps can be fetched as soon as
+ * the recorder has published them.
+ */
+@Service
+public class SortEngine {
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Map<String, SortAlgorithm<?>> algorithms;
+    private final TraceStore traceStore;
+    private final TraceCache traceCache;
+    private final TraceLimits traceLimits;
+    private final SortMetrics metrics;
+    private final TraceJobs traceJobs;
+    private final MappedTraces mappedTraces;
+
+    public SortEngine(List<SortAlgorithm<?>> algorithms, TraceStore traceStore, TraceCache traceCache,
+                      TraceLimits traceLimits, SortMetrics metrics, TraceJobs traceJobs, MappedTraces mappedTraces) {
+        this.algorithms = algorithms.stream()
+            .collect(Collectors.toUnmodifiableMap(SortAlgorithm::name, Function.identity()));
+        this.traceStore = traceStore;
+        this.traceCache = traceCache;
+        this.traceLimits = traceLimits;
+        this.metrics = metrics;
+        this.traceJobs = traceJobs;
+        this.mappedTraces = mappedTraces;
+    }
+
+    public SortAlgorithm<?> algorithm(String name) {
+        SortAlgorithm<?> algorithm = algorithms.get(name);
+        if (algorithm == null) {
+            throw new UnknownAlgorithmException("Unknown sorting algorithm: " + name);
+        }
+        return algorithm;
+    }
+
+    public SortResponse initSort(String name, SortRequest request) {
+        SortAlgorithm<?> algorithm = algorithm(name).configure(request);
+        int[] array = request.getArray();
+        if (array == null) {
+            throw new IllegalArgumentException("Input array cannot be empty");
+        }
+        algorithm.validate(array);
+
+        boolean lazyRequested = LazyTrace.MODE.equals(request.getMode());
+        Granularity granularity = Granularity.of(request.getGranularity(), request.getEvery());
+        String key = cacheKey(algorithm, granularity);
+        // An input seen before is served from the cache without being admitted again
+        Trace<?> trace = traceCache.find(key, lazyRequested, array);
+        TraceEstimate estimate;
+        if (trace != null) {
+            estimate = exactEstimate(algorithm, array, granularity, trace);
+        } else {
+            estimate = traceLimits.admit(algorithm, array, lazyRequested, granularity);
+            trace = TraceJobs.MODE.equals(request.getMode()) && !estimate.lazy()
+                ? startJob(algorithm, key, estimate, granularity, array)
+                : generate(algorithm, key, lazyRequested, estimate, granularity, array);
+            if (!estimate.lazy() && trace instanceof LazyTrace<?>) {
+                // Outgrew its estimate while recording
+                estimate = exactEstimate(algorithm, array, granularity, trace);
+            }
+        }
+        String traceId = traceStore.put(trace, key, array);
+
+        if (trace instanceof AsyncTrace<?>) {
+            return new SortResponse(
+                traceId,
+                algorithm.displayName() + " is being generated in the background",
+                array,
+                Arrays.stream(array).sorted().toArray(),
+                (int) estimate.steps(),
+                estimate,
+                "/api/sort/" + algorithm.name() + "/jobs/" + traceId
+            );
+        }
+        metrics.recordTrace(algorithm.name(), trace);
+
+        String message;
+        if (!estimate.lazy()) {
+            message = " completed successfully";
+        } else if (lazyRequested) {
+            message = " prepared for on-demand playback";
+        } else {
+            message = " prepared for on-demand playback, the trace is too large to build up front";
+        }
+        return new SortResponse(
+            traceId,
+            algorithm.displayName() + message,
+            array,
+            Arrays.stream(array).sorted().toArray(),
+            trace.size(),
+            estimate,
+            null,
+            // Totals would mean running an on-demand trace to its end
+            estimate.lazy() ? null : trace.operations(trace.size() - 1)
+        );
+    }
+
+    /**
+     * Initializes one trace per array in parallel, with the options shared by
+     * the batch. An array that is rejected does not fail the batch: its entry
+     * carries the reason as the message and no trace id.
+     */
+    public List<SortResponse> initBatch(String name, BatchSortRequest request) {
+        algorithm(name);
+        if (request.getArrays() == null || request.getArrays().isEmpty()) {
+            throw new IllegalArgumentException("Input arrays cannot be empty");
+        }
+        List<Callable<SortResponse>> tasks = request.getArrays().stream()
+            .map(array -> (Callable<SortResponse>) () -> initBatchItem(name, request.request(array)))
+            .toList();
+        return traceJobs.invokeAll(tasks);
+    }
+
+    private SortResponse initBatchItem(String name, SortRequest request) {
+        try {
+            return initSort(name, request);
+        } catch (IllegalArgumentException e) {
+            return new SortResponse(null, e.getMessage(), request.getArray(), null, 0, null);
+        }
+    }
+
+    /**
+     * Records every requested algorithm on the same input at once, reporting
+     * the work each did and storing its trace for playback. Algorithms run
+     * in parallel on the batch pool, each on one thread, so the timings of
+     * a race are comparable with each other rather than with a lone run.
+     * Inputs too large for an eager trace are not raced, since the
+     * operation counts come from the recorder.
+     */
+    public CompareResponse compare(CompareRequest request) {
+        int[] array = request.getArray();
+        if (array == null) {
+            throw new IllegalArgumentException("Input array cannot be empty");
+        }
+        List<SortAlgorithm<?>> racers = request.getAlgorithms() == null
+            ? algorithms.values().stream().sorted(Comparator.comparing(SortAlgorithm::name)).toList()
+            : request.getAlgorithms().stream().<SortAlgorithm<?>>map(this::algorithm).toList();
+        if (racers.isEmpty()) {
+            throw new IllegalArgumentException("No algorithms to compare");
+        }
+        Integer ticks = request.getTicks();
+        if (ticks != null && (ticks < 2 || ticks > StepRange.MAX_STEPS)) {
+            throw new IllegalArgumentException("Timeline ticks must be between 2 and " + StepRange.MAX_STEPS);
+        }
+
+        SortRequest options = new SortRequest();
+        options.setArray(array);
+        options.setPivot(request.getPivot());
+        List<Callable<RaceResult>> tasks = racers.stream()
+            .map(algorithm -> (Callable<RaceResult>) () -> race(algorithm.configure(options), array))
+            .toList();
+        List<RaceResult> results = traceJobs.invokeAll(tasks);
+        return new CompareResponse(array, results, ticks == null ? null : timeline(results, ticks));
+    }
+
+    private <S extends BinaryEncodable> RaceResult race(SortAlgorithm<S> algorithm, int[] array) {
+        try {
+            algorithm.validate(array);
+            if (traceLimits.admit(algorithm, array, false, Granularity.ALL).lazy()) {
+                return RaceResult.rejected(algorithm, "Trace is too large to race");
+            }
+        } catch (IllegalArgumentException e) {
+            return RaceResult.rejected(algorithm, e.getMessage());
+        }
+
+        StepRecorder<S> steps = new StepRecorder<>(algorithm.name(), array, algorithm.animations(),
+            algorithm::decode);
+        steps.limit(traceLimits.maxEagerSteps());
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            algorithm.record(array, steps);
+        } catch (TraceTooLargeException e) {
+            return RaceResult.rejected(algorithm, "Trace is too large to race");
+        }
+        Trace<S> trace = steps.build();
+        long wallNanos = System.nanoTime() - start;
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+
+        trace = mappedTraces.offload(trace);
+        String traceId = traceStore.put(trace, cacheKey(algorithm, Granularity.ALL), array);
+        metrics.recordTrace(algorithm.name(), trace);
+        return new RaceResult(algorithm.name(), algorithm.displayName(), traceId, trace.size(), steps.counts(),
+            wallNanos, allocated, algorithm.displayName() + " finished in " + trace.size() + " steps");
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, or -1 where the JVM
+     * does not track it.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean counting && counting.isThreadAllocatedMemoryEnabled()) {
+            return counting.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static List<int[]> timeline(List<RaceResult> results, int ticks) {
+        long longest = results.stream().mapToInt(RaceResult::steps).max().orElse(0);
+        List<int[]> timeline = new ArrayList<>(ticks);
+        for (int tick = 0; tick < ticks; tick++) {
+            long step = Math.round((double) tick * Math.max(longest - 1, 0) / (ticks - 1));
+            int[] indices = new int[results.size()];
+            for (int i = 0; i < indices.length; i++) {
+                int steps = results.get(i).steps();
+                indices[i] = steps == 0 ? -1 : (int) Math.min(step, steps - 1);
+            }
+            timeline.add(indices);
+        }
+        return timeline;
+    }
+
+    private static String cacheKey(SortAlgorithm<?> algorithm, Granularity granularity) {
+        String key = algorithm.options().isEmpty() ? algorithm.name() : algorithm.name() + ":" + algorithm.options();
+        if (granularity != Granularity.ALL) {
+            key += "/" + granularity.id();
+        }
+        return key;
+    }
+
+    /**
+     * Describes a trace already generated by its exact size, for a cached
+     * trace instead of admitting its input again.
+     */
+    private static TraceEstimate exactEstimate(SortAlgorithm<?> algorithm, int[] array, Granularity granularity,
+                                                Trace<?> trace) {
+        long generated = granularity == Granularity.ALL ? trace.size() : algorithm.estimateSteps(array);
+        return new TraceEstimate(generated, trace.size(), trace.estimatedBytes(),
+            trace instanceof LazyTrace<?> ? LazyTrace.MODE : TraceEstimate.EAGER);
+    }
+
+    /**
+     * Generates the trace of an input that missed the cache and caches it,
+     * under the mode requested rather than the one admitted, since the same
+     * request is always admitted the same way.
+     */
+    private <S extends BinaryEncodable> Trace<S> generate(SortAlgorithm<S> algorithm, String key,
+                                                          boolean lazyRequested, TraceEstimate estimate,
+                                                          Granularity granularity, int[] array) {
+        Trace<S> trace = metrics.timeGeneration(algorithm.name(), estimate.mode(), () -> estimate.lazy()
+            ? prepare(algorithm, array, granularity)
+            : recordOrPrepare(algorithm, array, granularity, null));
+        return traceCache.put(key, lazyRequested, array, trace);
+    }
+
+    /**
+     * Starts recording an input that missed the cache in the background and
+     * returns the trace that fills in as it goes. The finished trace is
+     * cached like an eager one.
+     */
+    private <S extends BinaryEncodable> Trace<S> startJob(SortAlgorithm<S> algorithm, String key,
+                                                          TraceEstimate estimate, Granularity granularity,
+                                                          int[] array) {
+        AsyncTrace<S> job = new AsyncTrace<>(algorithm.name(), estimate.steps());
+        int[] input = array.clone();
+        traceJobs.submit(() -> {
+            Trace<S> trace = metrics.timeGeneration(algorithm.name(), TraceJobs.MODE,
+                () -> recordOrPrepare(algorithm, input, granularity, job::publish));
+            job.complete(traceCache.put(key, false, input, trace));
+            metrics.recordTrace(algorithm.name(), trace);
+        }, job::fail);
+        return job;
+    }
+
+    /**
+     * Records an input admitted up front, or prepares it for on-demand
+     * playback once it outgrows the eager limit: an estimate need not be a
+     * bound, see {@link SortAlgorithm#estimateSteps}. The steps recorded
+     * until then are dropped; a background job has published them already
+     * and the on-demand trace continues them.
+     */
+    private <S extends BinaryEncodable> Trace<S> recordOrPrepare(SortAlgorithm<S> algorithm, int[] array,
+                                                                 Granularity granularity,
+                                                                 Consumer<? super DeltaTrace<S>> progress) {
+        try {
+            return mappedTraces.offload(record(algorithm, array, granularity, progress,
+                traceLimits.maxEagerSteps()));
+        } catch (TraceTooLargeException e) {
+            if (!granularity.lazySupported()) {
+                throw e;
+            }
+            return prepare(algorithm, array, granularity);
+        }
+    }
+
+    /**
+     * Runs the algorithm to completion, recording every step.
+     */
+    public static <S extends BinaryEncodable> Trace<S> record(SortAlgorithm<S> algorithm, int[] array) {
+        return record(algorithm, array, Granularity.ALL);
+    }
+
+    /**
+     * Runs the algorithm to completion, recording the steps the granularity
+     * keeps.
+     */
+    public static <S extends BinaryEncodable> Trace<S> record(SortAlgorithm<S> algorithm, int[] array,
+                                                              Granularity granularity) {
+        return record(algorithm, array, granularity, null, Integer.MAX_VALUE);
+    }
+
+    private static <S extends BinaryEncodable> Trace<S> record(SortAlgorithm<S> algorithm, int[] array,
+                                                               Granularity granularity,
+                                                               Consumer<? super DeltaTrace<S>> progress,
+                                                               int maxSteps) {
+        StepRecorder<S> steps = new StepRecorder<>(algorithm.name(), array, algorithm.animations(),
+            algorithm::decode, granularity);
+        steps.limit(maxSteps);
+        if (progress != null) {
+            steps.onProgress(PROGRESS_INTERVAL_NANOS, progress);
+        }
+        algorithm.record(array, steps);
+        return steps.build();
+    }
+
+    /**
+     * Steps are generated when first requested, but their exact count is
+     * needed up front. For some algorithms that takes a dry run of the
+     * cursor, which is only paid on a cache miss.
+     */
+    private static <S extends BinaryEncodable> Trace<S> prepare(SortAlgorithm<S> algorithm, int[] array,
+                                                               Granularity granularity) {
+        long generated = algorithm.countSteps(array);
+        StepCursor<S> cursor = algorithm.cursor(array);
+        if (granularity.level() == Granularity.Level.EVERY) {
+            cursor = new SkippingCursor<>(cursor, granularity.every(), generated);
+        }
+        return new LazyTrace<>(algorithm.name(), LazyTrace.checkedSize(granularity.bound(generated, array.length)),
+            cursor, algorithm.stepBytes(array.length));
+    }
+
+    public Trace<BinaryEncodable> getTrace(String name, String traceId) {
+        if (traceId == null || traceId.isBlank()) {
+            throw new IllegalArgumentException("A traceId is required");
+        }
+        return traceStore.get(algorithm(name).name(), traceId);
+    }
+
+    public StepResponse getStep(String name, String traceId, int stepNumber) {
+        return step(getTrace(name, traceId), traceId, stepNumber);
+    }
+
+    private StepResponse step(Trace<BinaryEncodable> trace, String traceId, int stepNumber) {
+        checkGenerated(trace, traceId, stepNumber);
+        if (stepNumber < 0 || stepNumber >= trace.size()) {
+            throw new IllegalArgumentException("Invalid step number");
+        }
+        BinaryEncodable state = metrics.timeStep(trace.getAlgorithm(), () -> trace.step(stepNumber));
+        return new StepResponse("Step retrieved successfully", state, stepNumber, trace.operations(stepNumber));
+    }
+
+    public StepRange<BinaryEncodable> getStepRange(String name, String traceId, int from, Integer to) {
+        Trace<BinaryEncodable> trace = getTrace(name, traceId);
+        checkGenerated(trace, traceId, from);
+        return StepRange.of(trace, from, to);
+    }
+
+    /**
+     * Tells a step that is not recorded yet, or never will be because its
+     * job failed, apart from one past the end of the trace.
+     */
+    private static void checkGenerated(Trace<?> trace, String traceId, int stepNumber) {
+        if (trace instanceof AsyncTrace<?> job && stepNumber >= job.size()) {
+            if (job.status() == AsyncTrace.Status.FAILED) {
+                throw new StepNotGeneratedException("Trace generation failed: " + job.failure(),
+                    progress(traceId, job));
+            }
+            if (job.status() == AsyncTrace.Status.RUNNING && stepNumber < job.expectedSteps()) {
+                throw new StepNotGeneratedException("Step " + stepNumber + " is not generated yet",
+                    progress(traceId, job));
+            }
+        }
+    }
+
+    public JobProgress getProgress(String name, String traceId) {
+        return progress(traceId, getTrace(name, traceId));
+    }
+
+    private static JobProgress progress(String traceId, Trace<?> trace) {
+        if (trace instanceof AsyncTrace<?> job) {
+            long total = job.status() == AsyncTrace.Status.DONE ? job.size() : job.expectedSteps();
+            return new JobProgress(traceId, job.status().name(), job.size(), total, job.failure());
+        }
+        return new JobProgress(traceId, AsyncTrace.Status.DONE.name(), trace.size(), trace.size(), null);
+    }
+
+    public TraceStore.EncodedSteps encodedSteps(String name, String traceId, boolean gzip) throws IOException {
+        return traceStore.encodedSteps(algorithm(name).name(), traceId, gzip);
+    }
+
+    /**
+     * Whether the trace has all its steps, i.e. is not still being generated
+     * in the background.
+     */
+    public boolean isComplete(String name, String traceId) {
+        return !(getTrace(name, traceId) instanceof AsyncTrace<?> job) || job.status() == AsyncTrace.Status.DONE;
+    }
+
+    public List<BinaryEncodable> getAllSteps(String name, String traceId) {
+        return getTrace(name, traceId).steps();
+    }
+}
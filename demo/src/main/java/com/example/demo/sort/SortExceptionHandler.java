@@ -0,0 +1,57 @@
+package com.example.demo.sort;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.demo.trace.TraceTooLargeException;
+import com.example.demo.trace.UnknownTraceException;
+import com.example.demo.trace.UnsupportedGranularityException;
+
+/**
+ * Answers requests that admission control rejects, requests for steps a
+ * background job has not recorded, and requests naming an algorithm or
+ * trace that does not exist, with an error status that carries the reason,
+ * instead of the server error an uncaught exception would give. Any other
+ * invalid argument, a bad step number, pivot or input, is a 400.
+ */
+@RestControllerAdvice
+public class SortExceptionHandler {
+
+    @ExceptionHandler(TraceTooLargeException.class)
+    public ProblemDetail traceTooLarge(TraceTooLargeException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+    }
+
+    @ExceptionHandler(UnsupportedGranularityException.class)
+    public ProblemDetail unsupportedGranularity(UnsupportedGranularityException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+    }
+
+    @ExceptionHandler(StepNotGeneratedException.class)
+    public ProblemDetail stepNotGenerated(StepNotGeneratedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setProperty("progress", e.getProgress());
+        return problem;
+    }
+
+    @ExceptionHandler(TooManyJobsException.class)
+    public ResponseEntity<ProblemDetail> tooManyJobs(TooManyJobsException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfter().toSeconds()))
+            .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    @ExceptionHandler({UnknownAlgorithmException.class, UnknownTraceException.class})
+    public ProblemDetail notFound(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail invalidArgument(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
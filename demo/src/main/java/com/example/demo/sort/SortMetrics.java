@@ -0,0 +1,91 @@
+package com.example.demo.sort;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.trace.Trace;
+import com.example.demo.trace.TraceCache;
+import com.example.demo.trace.TraceStore;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation of trace generation and playback, exported on
+ * {@code /actuator/prometheus}. Per-algorithm meters are tagged with the
+ * algorithm name, which is always one of the registered algorithms, and
+ * generation meters also with the mode the trace was admitted in.
+ */
+@Component
+public class SortMetrics {
+    private final MeterRegistry registry;
+
+    public SortMetrics(MeterRegistry registry, TraceStore traceStore, TraceCache traceCache) {
+        this.registry = registry;
+        Gauge.builder("sort.traces.live", traceStore, TraceStore::size)
+            .description("Traces held for playback sessions")
+            .register(registry);
+        Gauge.builder("sort.traces.live.bytes", traceStore, TraceStore::estimatedBytes)
+            .description("Estimated heap held by traces of playback sessions")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("sort.trace.cache.bytes", traceCache, cache -> cache.stats().bytes())
+            .description("Estimated heap held by the trace cache")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("sort.trace.cache.requests", traceCache, cache -> cache.stats().hits())
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("sort.trace.cache.requests", traceCache, cache -> cache.stats().misses())
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    /**
+     * Times generating a trace; cache hits never get here.
+     */
+    public <T> T timeGeneration(String algorithm, String mode, Supplier<T> generation) {
+        return Timer.builder("sort.trace.generation")
+            .description("Time to record a trace, or to set up on-demand playback")
+            .tag("algorithm", algorithm)
+            .tag("mode", mode)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(generation);
+    }
+
+    /**
+     * Records the size of a trace handed out by {@code /init}.
+     */
+    public void recordTrace(String algorithm, Trace<?> trace) {
+        DistributionSummary.builder("sort.trace.steps")
+            .description("Steps per trace")
+            .tag("algorithm", algorithm)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(trace.size());
+        DistributionSummary.builder("sort.trace.bytes")
+            .description("Estimated heap size per trace")
+            .tag("algorithm", algorithm)
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(trace.estimatedBytes());
+    }
+
+    /**
+     * Times looking up and rebuilding a single step for {@code /step}.
+     */
+    public <T> T timeStep(String algorithm, Supplier<T> lookup) {
+        return Timer.builder("sort.step")
+            .description("Time to look up and rebuild a single step")
+            .tag("algorithm", algorithm)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(lookup);
+    }
+}
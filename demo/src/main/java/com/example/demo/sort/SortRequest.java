@@ -0,0 +1,55 @@
+package com.example.demo.sort;
+
+public class SortRequest {
+    private int[] array;
+    // "lazy" generates steps on demand, "async" builds the trace in the background
+    // and returns at once; anything else builds the whole trace up front
+    private String mode;
+    // Pivot strategy for quicksort, e.g. "median-of-three"; ignored by other algorithms
+    private String pivot;
+    // Which steps to keep: "step" (default), "swap", "pass" or "every" with an interval in "every"
+    private String granularity;
+    private Integer every;
+    
+    public SortRequest() {}
+    
+    public int[] getArray() {
+        return array;
+    }
+    
+    public void setArray(int[] array) {
+        this.array = array;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getPivot() {
+        return pivot;
+    }
+
+    public void setPivot(String pivot) {
+        this.pivot = pivot;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public Integer getEvery() {
+        return every;
+    }
+
+    public void setEvery(Integer every) {
+        this.every = every;
+    }
+}
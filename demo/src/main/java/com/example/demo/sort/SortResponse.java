@@ -0,0 +1,73 @@
+package com.example.demo.sort;
+
+import com.example.demo.trace.OperationCounts;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class SortResponse {
+    private String traceId;
+    private String message;
+    private int[] originalArray;
+    private int[] sortedArray;
+    private int totalSteps;
+    private TraceEstimate estimate;
+    private String progressUrl;
+    private OperationCounts operations;
+
+    public SortResponse(String traceId, String message, int[] originalArray, int[] sortedArray, int totalSteps,
+                        TraceEstimate estimate) {
+        this(traceId, message, originalArray, sortedArray, totalSteps, estimate, null);
+    }
+
+    public SortResponse(String traceId, String message, int[] originalArray, int[] sortedArray, int totalSteps,
+                        TraceEstimate estimate, String progressUrl) {
+        this(traceId, message, originalArray, sortedArray, totalSteps, estimate, progressUrl, null);
+    }
+
+    public SortResponse(String traceId, String message, int[] originalArray, int[] sortedArray, int totalSteps,
+                        TraceEstimate estimate, String progressUrl, OperationCounts operations) {
+        this.traceId = traceId;
+        this.message = message;
+        this.originalArray = originalArray;
+        this.sortedArray = sortedArray;
+        this.totalSteps = totalSteps;
+        this.estimate = estimate;
+        this.progressUrl = progressUrl;
+        this.operations = operations;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int[] getOriginalArray() {
+        return originalArray;
+    }
+
+    public int[] getSortedArray() {
+        return sortedArray;
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    public TraceEstimate getEstimate() {
+        return estimate;
+    }
+
+    // Only set while the trace is generated in the background
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getProgressUrl() {
+        return progressUrl;
+    }
+
+    // Totals for the whole run; only set for traces recorded up front
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public OperationCounts getOperations() {
+        return operations;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.sort;
+
+/**
+ * A step of a background trace that is not recorded yet, or never will be
+ * because its job failed. Carries the job's progress so the client can
+ * tell how long to wait.
+ */
+public class StepNotGeneratedException extends IllegalArgumentException {
+    private final JobProgress progress;
+
+    public StepNotGeneratedException(String message, JobProgress progress) {
+        super(message);
+        this.progress = progress;
+    }
+
+    public JobProgress getProgress() {
+        return progress;
+    }
+}
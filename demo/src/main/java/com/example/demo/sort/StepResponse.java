@@ -0,0 +1,38 @@
+package com.example.demo.sort;
+
+import com.example.demo.trace.BinaryEncodable;
+import com.example.demo.trace.OperationCounts;
+import com.example.demo.trace.StepEnvelope;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class StepResponse implements StepEnvelope {
+    private String message;
+    private BinaryEncodable state;
+    private int stepNumber;
+    private OperationCounts operations;
+
+    public StepResponse(String message, BinaryEncodable state, int stepNumber, OperationCounts operations) {
+        this.message = message;
+        this.state = state;
+        this.stepNumber = stepNumber;
+        this.operations = operations;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public BinaryEncodable getState() {
+        return state;
+    }
+
+    public int getStepNumber() {
+        return stepNumber;
+    }
+
+    // Work done up to this step; JSON only, the binary encoding leaves it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public OperationCounts getOperations() {
+        return operations;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.sort;
+
+import java.time.Duration;
+
+/**
+ * A background trace could not start because {@link TraceJobs} is already
+ * running as many as it allows.
+ */
+public class TooManyJobsException extends IllegalArgumentException {
+    private final Duration retryAfter;
+
+    public TooManyJobsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * How long a client should wait before trying again.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
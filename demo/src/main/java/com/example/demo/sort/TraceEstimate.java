@@ -0,0 +1,17 @@
+package com.example.demo.sort;
+
+/**
+ * The size of a trace as worked out before generating it, and the mode it
+ * was admitted in ({@code "eager"} or {@code "lazy"}). {@code generatedSteps}
+ * is what the algorithm produces and {@code steps} what the requested
+ * granularity keeps of it. Both are estimates, see
+ * {@link SortAlgorithm#estimateSteps}; the trace itself has the exact count.
+ */
+public record TraceEstimate(long generatedSteps, long steps, long bytes, String mode) {
+
+    public static final String EAGER = "eager";
+
+    public boolean lazy() {
+        return !EAGER.equals(mode);
+    }
+}
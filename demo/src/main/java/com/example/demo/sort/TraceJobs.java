@@ -0,0 +1,107 @@
+package com.example.demo.sort;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs trace generation off the request thread. Jobs for {@code "async"}
+ * requests get one virtual thread each; the number recording at once is
+ * capped, since each holds a growing trace in memory until it finishes.
+ * Batches run on a fork-join pool sized to the cores, shared by all
+ * batches, since their generation is CPU-bound and awaited by the request.
+ */
+@Component
+public class TraceJobs {
+    public static final String MODE = "async";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger running = new AtomicInteger();
+    private final int maxRunning;
+    private final Duration retryAfter;
+    private final ForkJoinPool batchPool;
+    private final int maxBatchSize;
+
+    public TraceJobs(@Value("${trace.jobs.max-running:4}") int maxRunning,
+                     @Value("${trace.jobs.retry-after:5s}") Duration retryAfter,
+                     @Value("${trace.batch.parallelism:0}") int batchParallelism,
+                     @Value("${trace.batch.max-size:100}") int maxBatchSize) {
+        this.maxRunning = maxRunning;
+        this.retryAfter = retryAfter;
+        this.batchPool = new ForkJoinPool(batchParallelism > 0
+            ? batchParallelism
+            : Runtime.getRuntime().availableProcessors());
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Starts {@code job}, handing any exception it throws to {@code onFailure}.
+     *
+     * @throws TooManyJobsException when the cap on running jobs is reached
+     */
+    public void submit(Runnable job, Consumer<Throwable> onFailure) {
+        if (running.incrementAndGet() > maxRunning) {
+            running.decrementAndGet();
+            throw new TooManyJobsException(
+                "Too many traces are being generated, at most " + maxRunning + " at once", retryAfter);
+        }
+        executor.execute(() -> {
+            try {
+                job.run();
+            } catch (RuntimeException | Error e) {
+                onFailure.accept(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code tasks} in parallel and returns their results in order.
+     * An exception thrown by a task is rethrown once all have finished.
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        if (tasks.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "Batch is too large: " + tasks.size() + " arrays, at most " + maxBatchSize + " allowed");
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : batchPool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating a batch", e);
+        }
+        return results;
+    }
+
+    public int running() {
+        return running.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        batchPool.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.sort;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.trace.DeltaTrace;
+import com.example.demo.trace.Granularity;
+import com.example.demo.trace.LazyTrace;
+import com.example.demo.trace.TraceTooLargeException;
+import com.example.demo.trace.UnsupportedGranularityException;
+
+/**
+ * Admission control for trace generation. The step count is worked out
+ * from the input before anything is generated, see
+ * {@link SortAlgorithm#estimateSteps}, and turned into a size estimate. A
+ * trace too large to build up front is generated on demand instead, whose
+ * memory does not grow with the step count; an input too large even for
+ * that is rejected. Estimates count the steps the requested
+ * {@link Granularity} keeps.
+ */
+@Component
+public class TraceLimits {
+    private final int maxLength;
+    private final long maxEagerSteps;
+    private final long maxEagerBytes;
+    private final long maxSteps;
+
+    public TraceLimits(@Value("${trace.limits.max-length:50000}") int maxLength,
+                       @Value("${trace.limits.max-eager-steps:5000000}") long maxEagerSteps,
+                       @Value("${trace.limits.max-eager-size:128MB}") DataSize maxEagerSize,
+                       @Value("${trace.limits.max-steps:2147483647}") long maxSteps) {
+        this.maxLength = maxLength;
+        this.maxEagerSteps = maxEagerSteps;
+        this.maxEagerBytes = maxEagerSize.toBytes();
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Estimates the trace of {@code array} and picks the mode to generate it
+     * in, preferring the requested one.
+     */
+    public TraceEstimate admit(SortAlgorithm<?> algorithm, int[] array, boolean lazy, Granularity granularity) {
+        if (array.length > maxLength) {
+            throw new TraceTooLargeException(
+                "Input array is too long: " + array.length + " elements, at most " + maxLength + " allowed");
+        }
+        long generated = algorithm.estimateSteps(array);
+        if (generated > maxSteps) {
+            throw new TraceTooLargeException(
+                "Trace would have too many steps: " + generated + ", at most " + maxSteps + " allowed");
+        }
+        long steps = granularity.bound(generated, array.length);
+
+        long stepBytes = algorithm.stepBytes(array.length);
+        long eagerBytes = DeltaTrace.estimateBytes(steps, array.length, stepBytes);
+        if (!lazy && steps <= maxEagerSteps && eagerBytes <= maxEagerBytes) {
+            return new TraceEstimate(generated, steps, eagerBytes, TraceEstimate.EAGER);
+        }
+        if (!granularity.lazySupported()) {
+            if (lazy) {
+                throw new UnsupportedGranularityException(
+                    "On-demand playback supports only the step and every granularities");
+            }
+            throw new TraceTooLargeException(
+                "Trace is too large to build up front at " + granularity.id() + " granularity");
+        }
+        return new TraceEstimate(generated, steps, LazyTrace.estimateBytes(steps, stepBytes), LazyTrace.MODE);
+    }
+
+    /**
+     * The most steps an eager trace may keep. Recording stops at this limit
+     * for inputs whose trace outgrows its estimate, which are then generated
+     * on demand as well.
+     */
+    public int maxEagerSteps() {
+        return (int) Math.min(maxEagerSteps, Integer.MAX_VALUE);
+    }
+}
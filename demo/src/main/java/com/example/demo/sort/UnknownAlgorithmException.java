@@ -0,0 +1,11 @@
+package com.example.demo.sort;
+
+/**
+ * The requested algorithm is not one of the registered {@link SortAlgorithm}s.
+ */
+public class UnknownAlgorithmException extends IllegalArgumentException {
+
+    public UnknownAlgorithmException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A trace still being recorded in the background. Until generation finishes
+ * it serves the steps of the latest snapshot the {@link StepRecorder}
+ * published, so {@link #size()} grows while the job runs; once it finishes
+ * it reads through to the built trace.
+ */
+public final class AsyncTrace<S> implements Trace<S> {
+
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private final String algorithm;
+    private final long expectedSteps;
+    private volatile Trace<S> available;
+    private volatile Status status = Status.RUNNING;
+    private volatile String failure;
+    private final List<Consumer<? super Trace<S>>> listeners = new ArrayList<>();
+
+    /**
+     * @param expectedSteps the number of steps admission estimated; the
+     *                      finished trace has its exact count
+     */
+    public AsyncTrace(String algorithm, long expectedSteps) {
+        this.algorithm = algorithm;
+        this.expectedSteps = expectedSteps;
+    }
+
+    /**
+     * Makes the steps of {@code snapshot} readable; ignored once finished.
+     */
+    public void publish(Trace<S> snapshot) {
+        if (status == Status.RUNNING) {
+            available = snapshot;
+        }
+    }
+
+    public void complete(Trace<S> trace) {
+        List<Consumer<? super Trace<S>>> notify;
+        synchronized (listeners) {
+            available = trace;
+            status = Status.DONE;
+            notify = List.copyOf(listeners);
+            listeners.clear();
+        }
+        notify.forEach(listener -> listener.accept(trace));
+    }
+
+    /**
+     * Runs {@code listener} with the finished trace once generation
+     * succeeds, right away if it already has.
+     */
+    public void whenDone(Consumer<? super Trace<S>> listener) {
+        synchronized (listeners) {
+            if (status != Status.DONE) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.accept(available);
+    }
+
+    public void fail(Throwable cause) {
+        failure = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        synchronized (listeners) {
+            status = Status.FAILED;
+            listeners.clear();
+        }
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public String failure() {
+        return failure;
+    }
+
+    public long expectedSteps() {
+        return expectedSteps;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int size() {
+        Trace<S> trace = available;
+        return trace == null ? 0 : trace.size();
+    }
+
+    @Override
+    public S step(int stepNumber) {
+        Trace<S> trace = available;
+        if (trace == null) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        return trace.step(stepNumber);
+    }
+
+    @Override
+    public List<S> steps() {
+        Trace<S> trace = available;
+        return trace == null ? List.of() : trace.steps();
+    }
+
+    @Override
+    public List<S> range(int from, int to) {
+        return available.range(from, to);
+    }
+
+    @Override
+    public OperationCounts operations(int stepNumber) {
+        Trace<S> trace = available;
+        if (trace == null) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        return trace.operations(stepNumber);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        Trace<S> trace = available;
+        return trace == null ? 0 : trace.estimatedBytes();
+    }
+}
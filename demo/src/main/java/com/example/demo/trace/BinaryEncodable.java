@@ -0,0 +1,11 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+
+/**
+ * A step state that can write itself in the binary step encoding.
+ */
+public interface BinaryEncodable {
+
+    void writeTo(BinaryStepWriter out) throws IOException;
+}
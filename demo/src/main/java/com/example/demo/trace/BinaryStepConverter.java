@@ -0,0 +1,104 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes steps, step responses, step lists and step ranges as compact
+ * binary when the client sends {@code Accept: application/octet-stream}.
+ * JSON stays the default for every other client.
+ *
+ * <p>Layout: a step response is {@code varint(stepNumber + 1)} followed by
+ * its state, or just {@code 0} when there is no state; a list is
+ * {@code varint(count)} followed by its elements; a range is
+ * {@code varint(totalSteps) varint(from) varint(to)} followed by its list.
+ * States encode themselves, see {@link BinaryEncodable}.
+ */
+public class BinaryStepConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public BinaryStepConverter() {
+        super(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BinaryEncodable.class.isAssignableFrom(clazz)
+            || StepEnvelope.class.isAssignableFrom(clazz)
+            || StepRange.class.isAssignableFrom(clazz)
+            || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        Class<?> raw = resolved.resolve(clazz);
+        if (StepRange.class.isAssignableFrom(raw) || Collection.class.isAssignableFrom(raw)) {
+            Class<?> element = resolved.getGeneric(0).resolve();
+            return element != null && isStep(element);
+        }
+        return isStep(raw);
+    }
+
+    private static boolean isStep(Class<?> clazz) {
+        return BinaryEncodable.class.isAssignableFrom(clazz) || StepEnvelope.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        BinaryStepWriter out = new BinaryStepWriter(outputMessage.getBody());
+        write(value, out);
+    }
+
+    /**
+     * Writes a step, step response, step list or step range; also used to
+     * encode steps ahead of a download.
+     */
+    static void write(Object value, BinaryStepWriter out) throws IOException {
+        if (value instanceof StepRange<?> range) {
+            out.writeVarint(range.getTotalSteps());
+            out.writeVarint(range.getFrom());
+            out.writeVarint(range.getTo());
+            write(range.getSteps(), out);
+        } else if (value instanceof Collection<?> items) {
+            out.writeVarint(items.size());
+            for (Object item : items) {
+                write(item, out);
+            }
+        } else if (value instanceof StepEnvelope envelope) {
+            if (envelope.getState() == null) {
+                out.writeVarint(0);
+            } else {
+                out.writeVarint(envelope.getStepNumber() + 1);
+                envelope.getState().writeTo(out);
+            }
+        } else {
+            ((BinaryEncodable) value).writeTo(out);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary steps are write-only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary steps are write-only", inputMessage);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Low-level writer for the binary step encoding. Integers are LEB128
+ * varints (zigzag for signed values), sorted regions are a start and a
+ * length and animation names are codes into a per-algorithm table.
+ */
+public final class BinaryStepWriter {
+    private final OutputStream out;
+
+    public BinaryStepWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    public void writeSignedVarint(int value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 31));
+    }
+
+    public void writeByte(int value) throws IOException {
+        out.write(value);
+    }
+
+    /**
+     * Length followed by zigzag varints; null is written as length 0.
+     */
+    public void writeIntArray(int[] values) throws IOException {
+        if (values == null) {
+            writeVarint(0);
+            return;
+        }
+        writeVarint(values.length);
+        for (int value : values) {
+            writeSignedVarint(value);
+        }
+    }
+
+    /**
+     * The start of the range followed by its length.
+     */
+    public void writeSortedRange(SortedRange range) throws IOException {
+        writeSignedVarint(range.from());
+        writeVarint(range.size());
+    }
+
+    /**
+     * A 0/1 flag per element packed as a bitset, preceded by its length.
+     */
+    public void writeFlags(int[] flags) throws IOException {
+        writeVarint(flags.length);
+        byte[] bits = new byte[(flags.length + 7) / 8];
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] != 0) {
+                bits[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.write(bits);
+    }
+
+    /**
+     * 0 for null, otherwise 1 + the position of {@code value} in {@code table}.
+     */
+    public void writeCode(String value, String[] table) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        for (int i = 0; i < table.length; i++) {
+            if (value.equals(table[i])) {
+                writeVarint(i + 1);
+                return;
+            }
+        }
+        throw new IllegalStateException("No binary code for animation " + value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.trace;
+
+/**
+ * Packs the operation counts a step added since the previous kept step into
+ * one int: comparisons in the low {@value #COMPARISON_BITS} bits, then swaps
+ * and auxiliary writes in {@value #SWAP_BITS} bits each. A step whose counts
+ * do not fit, and every keyframe step, stores {@link #ABSOLUTE} instead and
+ * keeps its running totals in a side table, so the counts of any step are
+ * its deltas summed back to the nearest absolute entry, never further back
+ * than a keyframe.
+ */
+final class CountDeltas {
+    static final int ABSOLUTE = -1;
+
+    private static final int COMPARISON_BITS = 12;
+    private static final int SWAP_BITS = 10;
+    private static final int COMPARISON_MASK = (1 << COMPARISON_BITS) - 1;
+    private static final int SWAP_MASK = (1 << SWAP_BITS) - 1;
+
+    private CountDeltas() {
+    }
+
+    /**
+     * Returns {@link #ABSOLUTE} when a delta does not fit its field.
+     */
+    static int pack(long comparisons, long swaps, long auxWrites) {
+        if (comparisons >= COMPARISON_MASK || swaps >= SWAP_MASK || auxWrites >= SWAP_MASK) {
+            return ABSOLUTE;
+        }
+        return (int) comparisons | (int) swaps << COMPARISON_BITS | (int) auxWrites << COMPARISON_BITS + SWAP_BITS;
+    }
+
+    static int comparisons(int delta) {
+        return delta & COMPARISON_MASK;
+    }
+
+    static int swaps(int delta) {
+        return delta >>> COMPARISON_BITS & SWAP_MASK;
+    }
+
+    static int auxWrites(int delta) {
+        return delta >>> COMPARISON_BITS + SWAP_BITS;
+    }
+}
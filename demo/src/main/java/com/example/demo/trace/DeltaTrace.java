@@ -0,0 +1,282 @@
+package com.example.demo.trace;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A trace stored as the events that produced it instead of one array copy
+ * per step; recorded through a {@link StepRecorder}. Every step keeps its
+ * indices, animation code and the element writes made since the previous
+ * step; a full copy of the array and any auxiliary buffer (keyframe) is kept
+ * every {@link #keyframeInterval(int)} steps. A step is rebuilt by copying
+ * the nearest keyframe at or before it and replaying the writes in between.
+ *
+ * <p>The sorted region changes far less often than a step is taken, whether
+ * it grows or is replaced, so each step keeps the {@link SortedRange} in
+ * effect when it was recorded, one instance shared by every step since the
+ * region last changed.
+ *
+ * <p>Each step also keeps what it added to the operation counts, and
+ * keyframe steps their running totals, see {@link CountDeltas}. Registers
+ * are kept as a snapshot per change, found by binary search like the
+ * absolute counts.
+ */
+public final class DeltaTrace<S> implements Trace<S> {
+
+    private static final int MIN_KEYFRAME_INTERVAL = 64;
+    private static final int COMPLETED_FLAG = StepRecorder.COMPLETED_FLAG;
+
+    /**
+     * Turns a rebuilt step back into the algorithm's own state object.
+     */
+    public interface Decoder<S> {
+        S decode(Frame frame);
+    }
+
+    /**
+     * A rebuilt step. The arrays are fresh copies owned by the caller;
+     * {@code aux} is null unless the recorder declared an auxiliary buffer,
+     * and {@code registers} unless it declared registers.
+     */
+    public record Frame(int[] array, int[] aux, int[] registers, int first, int second, String animation,
+                        int line, SortedRange sortedRange, boolean completed) {
+    }
+
+    final String algorithm;
+    final int arrayLength;
+    final int memoryLength;
+    final String[] animations;
+    final Decoder<S> decoder;
+    final int keyframeInterval;
+
+    final int size;
+    final byte[] ops;
+    final int[] first;
+    final int[] second;
+    final int[] lines;
+    final SortedRange[] sortedRanges;
+    final int[] writeEnds;
+    final int[] countDeltas;
+    final int absoluteCount;
+    final int[] absoluteSteps;
+    final long[] absoluteCounts;
+    final int[] writeIndices;
+    final int[] writeValues;
+    final int[][] keyframes;
+    final int registerCount;
+    final int registerSetCount;
+    final int[] registerSteps;
+    final int[] registerValues;
+
+    DeltaTrace(StepRecorder<S> recorder) {
+        this(recorder, false);
+    }
+
+    /**
+     * @param share read the recorder's columns in place instead of copying
+     *              them; the recorder only appends past {@code size}, so the
+     *              entries this trace reads never change afterwards
+     */
+    DeltaTrace(StepRecorder<S> recorder, boolean share) {
+        this.algorithm = recorder.algorithm;
+        this.arrayLength = recorder.initialArray.length;
+        this.memoryLength = recorder.current.length;
+        this.animations = recorder.animations;
+        this.decoder = recorder.decoder;
+        this.keyframeInterval = recorder.keyframeInterval;
+        this.size = recorder.size;
+        this.ops = share ? recorder.ops : Arrays.copyOf(recorder.ops, size);
+        this.first = share ? recorder.first : Arrays.copyOf(recorder.first, size);
+        this.second = share ? recorder.second : Arrays.copyOf(recorder.second, size);
+        this.lines = share ? recorder.lines : Arrays.copyOf(recorder.lines, size);
+        this.sortedRanges = share ? recorder.sortedRanges : Arrays.copyOf(recorder.sortedRanges, size);
+        this.writeEnds = share ? recorder.writeEnds : Arrays.copyOf(recorder.writeEnds, size);
+        this.countDeltas = share ? recorder.countDeltas : Arrays.copyOf(recorder.countDeltas, size);
+        this.absoluteCount = recorder.absoluteCount;
+        this.absoluteSteps = share ? recorder.absoluteSteps : Arrays.copyOf(recorder.absoluteSteps, absoluteCount);
+        this.absoluteCounts = share ? recorder.absoluteCounts
+            : Arrays.copyOf(recorder.absoluteCounts, 3 * absoluteCount);
+        this.writeIndices = share ? recorder.writeIndices : Arrays.copyOf(recorder.writeIndices, recorder.writeCount);
+        this.writeValues = share ? recorder.writeValues : Arrays.copyOf(recorder.writeValues, recorder.writeCount);
+        this.keyframes = recorder.keyframes.toArray(new int[0][]);
+        this.registerCount = recorder.registerCount;
+        this.registerSetCount = recorder.registerSetCount;
+        this.registerSteps = share ? recorder.registerSteps
+            : Arrays.copyOf(recorder.registerSteps, registerSetCount);
+        this.registerValues = share ? recorder.registerValues
+            : Arrays.copyOf(recorder.registerValues, registerSetCount * registerCount);
+    }
+
+    static int keyframeInterval(int arrayLength) {
+        return Math.max(MIN_KEYFRAME_INTERVAL, arrayLength);
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public S step(int stepNumber) {
+        if (stepNumber < 0 || stepNumber >= size) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        int keyframe = stepNumber / keyframeInterval;
+        int[] array = keyframes[keyframe].clone();
+        replay(array, keyframe * keyframeInterval, stepNumber);
+        return decode(stepNumber, array);
+    }
+
+    @Override
+    public List<S> steps() {
+        return new StepList();
+    }
+
+    /**
+     * Seeks to {@code from} once and then replays forward through the range.
+     */
+    @Override
+    public List<S> range(int from, int to) {
+        int keyframe = from / keyframeInterval;
+        int[] array = keyframes[keyframe].clone();
+        replay(array, keyframe * keyframeInterval, from);
+        List<S> steps = new ArrayList<>(to - from);
+        steps.add(decode(from, array));
+        for (int i = from + 1; i < to; i++) {
+            replay(array, i - 1, i);
+            steps.add(decode(i, array));
+        }
+        return steps;
+    }
+
+    @Override
+    public OperationCounts operations(int stepNumber) {
+        if (stepNumber < 0 || stepNumber >= size) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        long comparisons = 0;
+        long swaps = 0;
+        long auxWrites = 0;
+        int step = stepNumber;
+        for (; countDeltas[step] != CountDeltas.ABSOLUTE; step--) {
+            comparisons += CountDeltas.comparisons(countDeltas[step]);
+            swaps += CountDeltas.swaps(countDeltas[step]);
+            auxWrites += CountDeltas.auxWrites(countDeltas[step]);
+        }
+        int entry = 3 * Arrays.binarySearch(absoluteSteps, 0, absoluteCount, step);
+        comparisons += absoluteCounts[entry];
+        swaps += absoluteCounts[entry + 1];
+        auxWrites += absoluteCounts[entry + 2];
+        return new OperationCounts(comparisons, swaps, writeEnds[stepNumber] - auxWrites, auxWrites,
+            memoryLength - arrayLength);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long columns = size * (1L + 5 * 4 + Footprint.REFERENCE) + 2 * Footprint.intArray(writeIndices.length)
+            + Footprint.intArray(absoluteSteps.length) + 2 * Footprint.intArray(absoluteCounts.length);
+        return columns + keyframes.length * (Footprint.intArray(memoryLength) + Footprint.REFERENCE)
+            + Footprint.intArray(registerSteps.length) + Footprint.intArray(registerValues.length);
+    }
+
+    /**
+     * Approximates {@link #estimatedBytes()} before recording, assuming a
+     * couple of writes per step and keyframes the size of a decoded step.
+     */
+    public static long estimateBytes(long steps, int arrayLength, long keyframeBytes) {
+        long columns = steps * (1L + 5 * 4 + Footprint.REFERENCE + 2 * 2 * 4);
+        long keyframes = (steps + keyframeInterval(arrayLength) - 1) / keyframeInterval(arrayLength);
+        return columns + keyframes * (keyframeBytes + Footprint.REFERENCE);
+    }
+
+    private void replay(int[] array, int fromStep, int toStep) {
+        for (int w = writeEnds[fromStep]; w < writeEnds[toStep]; w++) {
+            array[writeIndices[w]] = writeValues[w];
+        }
+    }
+
+    /**
+     * The registers in effect at {@code stepNumber}, or null when there are
+     * none.
+     */
+    private int[] registers(int stepNumber) {
+        if (registerCount == 0) {
+            return null;
+        }
+        int set = Arrays.binarySearch(registerSteps, 0, registerSetCount, stepNumber);
+        if (set < 0) {
+            set = -set - 2;
+        }
+        return Arrays.copyOfRange(registerValues, set * registerCount, (set + 1) * registerCount);
+    }
+
+    /**
+     * Decodes from the caller's working memory, copying out what the state
+     * keeps.
+     */
+    private S decode(int stepNumber, int[] memory) {
+        int op = ops[stepNumber] & 0xFF;
+        return decoder.decode(new Frame(
+            Arrays.copyOf(memory, arrayLength),
+            memoryLength > arrayLength ? Arrays.copyOfRange(memory, arrayLength, memoryLength) : null,
+            registers(stepNumber),
+            first[stepNumber],
+            second[stepNumber],
+            animations[op & ~COMPLETED_FLAG],
+            lines[stepNumber],
+            sortedRanges[stepNumber],
+            (op & COMPLETED_FLAG) != 0
+        ));
+    }
+
+    /**
+     * Decodes steps sequentially, replaying one step's writes at a time
+     * instead of going back to a keyframe for every element.
+     */
+    private final class StepList extends AbstractList<S> {
+        @Override
+        public S get(int index) {
+            return step(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<S> iterator() {
+            return new Iterator<>() {
+                private int[] memory;
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public S next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    if (memory == null) {
+                        memory = keyframes[0].clone();
+                    } else {
+                        replay(memory, next - 1, next);
+                    }
+                    return decode(next++, memory);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.demo.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps recorded traces in files under {@code trace.store.dir} as well as in
+ * memory, so they survive a restart and instances sharing the directory can
+ * serve each other's trace ids. A trace missing from memory is mapped back
+ * from its file on first read, see {@link MappedTrace#load}; the heap only
+ * ever holds the handle.
+ *
+ * <p>Trace files are named after their contents, a digest of the cache key
+ * and input they were generated from, so the sessions {@link TraceCache}
+ * hands the same trace share one file. Each trace id gets a small link
+ * file naming the contents it resolves to. Files are written on a
+ * background thread rather than the request thread, and a trace whose file
+ * exists already only gets its link; until the writer gets to it, an id is
+ * served from this instance's memory only.
+ *
+ * <p>Only recorded traces are written. On-demand traces hold nothing worth
+ * saving and stay in memory only; a background trace is written once its
+ * job finishes. A trace that cannot be written is kept in memory only.
+ * Files expire after the time-to-live by their modification time, which a
+ * new link to a trace file renews; the idle timeout only drops traces from
+ * memory.
+ *
+ * <p>The first binary download of a trace encodes all its steps into a
+ * second file, which later downloads send as is, see {@link #encodedSteps};
+ * the first download accepting gzip compresses that file into a third.
+ */
+@Component
+@ConditionalOnProperty(name = "trace.store.type", havingValue = "file")
+public class FileTraceStore implements TraceStore {
+    private static final String LINK_SUFFIX = ".link";
+    private static final String TRACE_SUFFIX = ".trace";
+    private static final String STEPS_SUFFIX = ".steps";
+    private static final String GZIP_SUFFIX = ".steps.gz";
+
+    private final InMemoryTraceStore memory;
+    private final Path directory;
+    private final Duration ttl;
+    private final Map<String, TraceDecoder<?>> decoders;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("trace-store-writer").daemon().factory());
+
+    public FileTraceStore(@Value("${trace.store.dir:${java.io.tmpdir}/sort-trace-store}") Path directory,
+                          @Value("${trace.store.ttl:30m}") Duration ttl,
+                          @Value("${trace.store.idle-timeout:10m}") Duration idleTimeout,
+                          List<TraceDecoder<?>> decoders) throws IOException {
+        this.memory = new InMemoryTraceStore(ttl, idleTimeout);
+        this.directory = Files.createDirectories(directory);
+        this.ttl = ttl;
+        this.decoders = decoders.stream()
+            .collect(Collectors.toUnmodifiableMap(TraceDecoder::name, Function.identity()));
+    }
+
+    /**
+     * Without a cache key the trace gets a file of its own, named after its
+     * id.
+     */
+    @Override
+    public String put(Trace<?> trace) {
+        String id = memory.put(trace);
+        save(id, id, trace);
+        return id;
+    }
+
+    @Override
+    public String put(Trace<?> trace, String cacheKey, int[] input) {
+        String id = memory.put(trace);
+        save(id, contentKey(cacheKey, input), trace);
+        return id;
+    }
+
+    private void save(String id, String contents, Trace<?> trace) {
+        if (trace instanceof AsyncTrace<?> job) {
+            job.whenDone(result -> writer.execute(() -> write(id, contents, result)));
+        } else {
+            writer.execute(() -> write(id, contents, trace));
+        }
+    }
+
+    private void write(String id, String contents, Trace<?> trace) {
+        if (!(trace instanceof DeltaTrace<?>) && !(trace instanceof MappedTrace<?>)) {
+            return;
+        }
+        try {
+            Path file = file(contents, TRACE_SUFFIX);
+            if (Files.exists(file)) {
+                // A shared file lives as long as its newest link
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                MappedTrace.save(trace, file);
+            }
+            writeAtomically(id, file(id, LINK_SUFFIX),
+                out -> out.write(contents.getBytes(StandardCharsets.US_ASCII)));
+        } catch (IOException e) {
+            // Still served from memory, it just will not outlive this instance
+        }
+    }
+
+    @Override
+    public <S> Trace<S> find(String algorithm, String traceId) {
+        Trace<S> trace = memory.find(algorithm, traceId);
+        if (trace != null || traceId == null || !isId(traceId)) {
+            return trace;
+        }
+        try {
+            Path link = file(traceId, LINK_SUFFIX);
+            Path file = file(contents(traceId), TRACE_SUFFIX);
+            long age = System.currentTimeMillis() - Files.getLastModifiedTime(link).toMillis();
+            MappedTrace<S> loaded = MappedTrace.load(file, decoders::get);
+            if (loaded == null || !loaded.getAlgorithm().equals(algorithm)) {
+                return null;
+            }
+            memory.put(traceId, loaded, System.nanoTime() - Duration.ofMillis(age).toNanos());
+            return loaded;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load trace " + traceId, e);
+        }
+    }
+
+    /**
+     * The contents the link of {@code traceId} names.
+     */
+    private String contents(String traceId) throws IOException {
+        return Files.readString(file(traceId, LINK_SUFFIX), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Encodes the steps on first use, and compresses them on first use with
+     * gzip, each time writing to a temporary file that is then moved into
+     * place, so concurrent downloads at worst encode twice. The encodings
+     * are shared by every id linked to the same trace file.
+     */
+    @Override
+    public EncodedSteps encodedSteps(String algorithm, String traceId, boolean gzip) throws IOException {
+        if (traceId == null || !isId(traceId)) {
+            return null;
+        }
+        Trace<?> trace = find(algorithm, traceId);
+        if (trace == null || !Files.exists(file(traceId, LINK_SUFFIX))) {
+            return null;
+        }
+        String contents = contents(traceId);
+        if (!Files.exists(file(contents, TRACE_SUFFIX))) {
+            return null;
+        }
+        Path steps = file(contents, STEPS_SUFFIX);
+        if (!Files.exists(steps)) {
+            writeAtomically(contents, steps,
+                out -> BinaryStepConverter.write(trace.steps(), new BinaryStepWriter(out)));
+        }
+        if (!gzip) {
+            return new EncodedSteps(steps, Files.size(steps), false);
+        }
+        Path gzipped = file(contents, GZIP_SUFFIX);
+        if (!Files.exists(gzipped)) {
+            writeAtomically(contents, gzipped, out -> {
+                try (InputStream in = Files.newInputStream(steps)) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out);
+                    in.transferTo(compressed);
+                    compressed.finish();
+                }
+            });
+        }
+        return new EncodedSteps(gzipped, Files.size(gzipped), true);
+    }
+
+    private interface FileContents {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private void writeAtomically(String name, Path target, FileContents contents) throws IOException {
+        Path temp = Files.createTempFile(directory, name, ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                contents.writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return memory.estimatedBytes();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${trace.store.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        memory.evictExpired();
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (NoSuchFileException e) {
+                    // Removed by another instance sharing the directory
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sweep " + directory, e);
+        }
+    }
+
+    /**
+     * Called when a trace is dropped from memory, even though its file may
+     * still map it back in.
+     */
+    @Override
+    public void onEvict(Consumer<String> listener) {
+        memory.onEvict(listener);
+    }
+
+    /**
+     * Lets pending writes finish, so traces put just before shutdown are
+     * still found after a restart.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private Path file(String name, String suffix) {
+        return directory.resolve(name + suffix);
+    }
+
+    /**
+     * Names the contents of a trace after a digest of what it was generated
+     * from, the same on every instance sharing the directory.
+     */
+    private static String contentKey(String cacheKey, int[] input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(cacheKey.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            ByteBuffer values = ByteBuffer.allocate(4 * input.length);
+            values.asIntBuffer().put(input);
+            digest.update(values);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Ids become file names, so only ids this store could have handed out
+     * are looked up.
+     */
+    private static boolean isId(String traceId) {
+        try {
+            return UUID.fromString(traceId).toString().equals(traceId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.trace;
+
+/**
+ * Rough heap sizes used to weigh traces against the cache budget. Assumes
+ * a 64-bit JVM with compressed references; the numbers only need to be
+ * right relative to each other.
+ */
+public final class Footprint {
+    public static final int OBJECT_HEADER = 16;
+    public static final int REFERENCE = 4;
+
+    private Footprint() {
+    }
+
+    public static long intArray(int length) {
+        return OBJECT_HEADER + 4L * length;
+    }
+
+    /**
+     * A string of {@code length} Latin-1 characters, stored a byte each.
+     */
+    public static long string(int length) {
+        return OBJECT_HEADER + 8 + OBJECT_HEADER + (long) length;
+    }
+
+    /**
+     * A step state holding {@code arrays} int arrays of {@code length}
+     * elements plus a handful of scalar fields.
+     */
+    public static long state(int length, int arrays) {
+        return 4L * OBJECT_HEADER + arrays * intArray(length);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.trace;
+
+/**
+ * Which of the steps an algorithm generates end up in its trace. The first
+ * and the final step are always kept.
+ *
+ * <ul>
+ *   <li>{@code step}: every step.</li>
+ *   <li>{@code swap}: steps that write to the array or the algorithm's
+ *       auxiliary buffer.</li>
+ *   <li>{@code pass}: steps that grow the sorted region, i.e. one per outer
+ *       pass for the quadratic sorts.</li>
+ *   <li>{@code every}: every k-th step.</li>
+ * </ul>
+ *
+ * Only {@code step} and {@code every} are supported for on-demand traces:
+ * the other levels depend on what a step does, which is only known once
+ * the algorithm has run.
+ */
+public record Granularity(Level level, int every) {
+
+    public enum Level {
+        STEP("step"),
+        SWAP("swap"),
+        PASS("pass"),
+        EVERY("every");
+
+        private final String id;
+
+        Level(String id) {
+            this.id = id;
+        }
+    }
+
+    public static final Granularity ALL = new Granularity(Level.STEP, 1);
+
+    /**
+     * Parses the request parameters; a null level keeps every step and
+     * {@code every} is only read for the {@code every} level.
+     */
+    public static Granularity of(String level, Integer every) {
+        if (level == null) {
+            return ALL;
+        }
+        for (Level candidate : Level.values()) {
+            if (candidate.id.equals(level)) {
+                if (candidate != Level.EVERY) {
+                    return candidate == Level.STEP ? ALL : new Granularity(candidate, 1);
+                }
+                if (every == null || every < 1) {
+                    throw new IllegalArgumentException("Granularity \"every\" needs a positive step interval");
+                }
+                return every == 1 ? ALL : new Granularity(candidate, every);
+            }
+        }
+        throw new IllegalArgumentException("Unknown granularity: " + level);
+    }
+
+    public String id() {
+        return level == Level.EVERY ? level.id + "-" + every : level.id;
+    }
+
+    /**
+     * Whether on-demand traces can be played at this granularity.
+     */
+    public boolean lazySupported() {
+        return level == Level.STEP || level == Level.EVERY;
+    }
+
+    /**
+     * The number of steps kept out of {@code steps} generated ones, or an
+     * upper bound where that depends on what the steps do.
+     */
+    public long bound(long steps, int arrayLength) {
+        return switch (level) {
+            case STEP, SWAP -> steps;
+            case PASS -> Math.min(steps, arrayLength + 2L);
+            case EVERY -> steps == 0 ? 0 : (steps - 1 + every - 1) / every + 1;
+        };
+    }
+
+    /**
+     * Decides on a generated step that is neither the first nor the final one.
+     *
+     * @param index the step's position among all generated steps
+     * @param wrote whether memory was written since the last kept step
+     * @param grewSorted whether the sorted region changed since the last kept step
+     */
+    boolean keeps(long index, boolean wrote, boolean grewSorted) {
+        return switch (level) {
+            case STEP -> true;
+            case SWAP -> wrote;
+            case PASS -> grewSorted;
+            case EVERY -> index % every == 0;
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.trace;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps traces on the heap only, so they are lost on restart. Reads never
+ * lock: traces are immutable and published through the concurrent map.
+ * Entries expire after a fixed time-to-live or when they have not been read
+ * for the idle timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "trace.store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTraceStore implements TraceStore {
+    private final Map<String, Entry> traces = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    private final Duration ttl;
+    private final Duration idleTimeout;
+
+    public InMemoryTraceStore(@Value("${trace.store.ttl:30m}") Duration ttl,
+                      @Value("${trace.store.idle-timeout:10m}") Duration idleTimeout) {
+        this.ttl = ttl;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public String put(Trace<?> trace) {
+        String id = UUID.randomUUID().toString();
+        put(id, trace, System.nanoTime());
+        return id;
+    }
+
+    /**
+     * Stores {@code trace} under an id handed out earlier, aging it from
+     * {@code createdAt} on the {@link System#nanoTime()} clock.
+     */
+    void put(String id, Trace<?> trace, long createdAt) {
+        traces.put(id, new Entry(trace, createdAt));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S> Trace<S> find(String algorithm, String traceId) {
+        if (traceId == null) {
+            return null;
+        }
+        Entry entry = traces.get(traceId);
+        if (entry == null || !entry.trace.getAlgorithm().equals(algorithm)) {
+            return null;
+        }
+        entry.lastAccess = System.nanoTime();
+        return (Trace<S>) entry.trace;
+    }
+
+    @Override
+    public int size() {
+        return traces.size();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        Set<Trace<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (Entry entry : traces.values()) {
+            if (distinct.add(entry.trace)) {
+                bytes += entry.trace.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${trace.store.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        List<String> evicted = new ArrayList<>();
+        traces.entrySet().removeIf(entry -> {
+            Entry trace = entry.getValue();
+            boolean expired = now - trace.createdAt > ttl.toNanos() || now - trace.lastAccess > idleTimeout.toNanos();
+            if (expired) {
+                evicted.add(entry.getKey());
+            }
+            return expired;
+        });
+        for (String id : evicted) {
+            evictionListeners.forEach(listener -> listener.accept(id));
+        }
+    }
+
+    @Override
+    public void onEvict(Consumer<String> listener) {
+        evictionListeners.add(listener);
+    }
+
+    private static final class Entry {
+        private final Trace<?> trace;
+        private final long createdAt;
+        private volatile long lastAccess;
+
+        private Entry(Trace<?> trace, long createdAt) {
+            this.trace = trace;
+            this.createdAt = createdAt;
+            this.lastAccess = createdAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.trace;
+
+/**
+ * Counts strict inversions (pairs i &lt; j with a[i] &gt; a[j]), which is
+ * exactly the number of swaps bubble sort and shifts insertion sort make.
+ * Used to size lazy traces without running the quadratic algorithm.
+ */
+public final class Inversions {
+
+    private Inversions() {
+    }
+
+    public static long count(int[] array) {
+        int[] work = array.clone();
+        return sortAndCount(work, new int[work.length], 0, work.length);
+    }
+
+    private static long sortAndCount(int[] a, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return 0;
+        }
+        int mid = (from + to) >>> 1;
+        long inversions = sortAndCount(a, buffer, from, mid) + sortAndCount(a, buffer, mid, to);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            if (a[i] <= a[j]) {
+                buffer[k++] = a[i++];
+            } else {
+                inversions += mid - i;
+                buffer[k++] = a[j++];
+            }
+        }
+        while (i < mid) {
+            buffer[k++] = a[i++];
+        }
+        while (j < to) {
+            buffer[k++] = a[j++];
+        }
+        System.arraycopy(buffer, from, a, from, to - from);
+        return inversions;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.trace;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A trace whose steps are generated on demand from a {@link StepCursor}
+ * instead of being materialized up front. Only the step count is known when
+ * the trace is created.
+ *
+ * <p>While steps are produced a checkpoint (a copy of the cursor) is kept at
+ * fixed intervals, at most {@value #MAX_CHECKPOINTS} for the whole trace, so
+ * seeking backwards resumes from the nearest checkpoint instead of step 0.
+ * Recently served steps are kept in a small window for replays around the
+ * playback position. Memory therefore depends on the array length only,
+ * not on the number of steps.
+ *
+ * <p>Unlike the other traces this one mutates internal caches on reads, so
+ * step lookups are synchronized per trace.
+ */
+public final class LazyTrace<S> implements Trace<S> {
+
+    /**
+     * Value of the request {@code mode} that selects on-demand generation.
+     */
+    public static final String MODE = "lazy";
+
+    private static final int MAX_CHECKPOINTS = 64;
+    private static final int WINDOW = 256;
+
+    private final String algorithm;
+    private final int size;
+    private final int checkpointInterval;
+    private final StepCursor<S>[] checkpoints;
+    private final Map<Integer, S> window = new LinkedHashMap<>(WINDOW, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, S> eldest) {
+            return size() > WINDOW;
+        }
+    };
+    private final long stepBytes;
+    private StepCursor<S> live;
+
+    /**
+     * @param stepBytes approximate heap size of one step, or of one cursor
+     *                  copy, whichever is larger
+     */
+    public LazyTrace(String algorithm, int size, StepCursor<S> start, long stepBytes) {
+        this.algorithm = algorithm;
+        this.size = size;
+        this.stepBytes = stepBytes;
+        this.checkpointInterval = Math.max(1, (size + MAX_CHECKPOINTS - 1) / MAX_CHECKPOINTS);
+        @SuppressWarnings("unchecked")
+        StepCursor<S>[] checkpoints =
+            (StepCursor<S>[]) new StepCursor<?>[(size + checkpointInterval - 1) / checkpointInterval + 1];
+        this.checkpoints = checkpoints;
+        this.checkpoints[0] = start.copy();
+        this.live = start;
+    }
+
+    /**
+     * Narrows a computed step count, rejecting traces too long to address.
+     */
+    public static int checkedSize(long stepCount) {
+        if (stepCount > Integer.MAX_VALUE) {
+            throw new TraceTooLargeException("Trace would have too many steps: " + stepCount);
+        }
+        return (int) stepCount;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized S step(int stepNumber) {
+        if (stepNumber < 0 || stepNumber >= size) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        S cached = window.get(stepNumber);
+        if (cached != null) {
+            return cached;
+        }
+        seek(stepNumber);
+        S state = live.current();
+        window.put(stepNumber, state);
+        return state;
+    }
+
+    /**
+     * Counts are not cached, but reading them right after the same step
+     * finds the live cursor already there.
+     */
+    @Override
+    public synchronized OperationCounts operations(int stepNumber) {
+        if (stepNumber < 0 || stepNumber >= size) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        if (live.position() != stepNumber) {
+            seek(stepNumber);
+        }
+        return live.counts();
+    }
+
+    /**
+     * Moves the live cursor onto {@code stepNumber}, resuming from the
+     * nearest checkpoint when it is behind the step or too far ahead of it.
+     */
+    private void seek(int stepNumber) {
+        StepCursor<S> checkpoint = nearestCheckpoint(stepNumber);
+        if (live.position() > stepNumber || live.position() < checkpoint.position()) {
+            live = checkpoint.copy();
+        }
+        while (live.position() < stepNumber) {
+            live.advance();
+            int position = live.position();
+            if (position % checkpointInterval == 0 && checkpoints[position / checkpointInterval] == null) {
+                checkpoints[position / checkpointInterval] = live.copy();
+            }
+        }
+    }
+
+    /**
+     * The bound the caches can grow to rather than their current size, so
+     * the weight of a cached trace does not change while it is played.
+     */
+    @Override
+    public long estimatedBytes() {
+        return (checkpoints.length + Math.min(size, WINDOW)) * stepBytes;
+    }
+
+    /**
+     * Approximates {@link #estimatedBytes()} before the trace is created.
+     */
+    public static long estimateBytes(long steps, long stepBytes) {
+        return (Math.min(steps, MAX_CHECKPOINTS + 1) + Math.min(steps, WINDOW)) * stepBytes;
+    }
+
+    private StepCursor<S> nearestCheckpoint(int stepNumber) {
+        for (int k = stepNumber / checkpointInterval; k > 0; k--) {
+            if (checkpoints[k] != null) {
+                return checkpoints[k];
+            }
+        }
+        return checkpoints[0];
+    }
+
+    /**
+     * Iterating runs a private copy of the cursor from the start, so a full
+     * listing neither disturbs nor fills the playback caches.
+     */
+    @Override
+    public List<S> steps() {
+        return new AbstractList<>() {
+            @Override
+            public S get(int index) {
+                return step(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<S> iterator() {
+                StepCursor<S> cursor;
+                synchronized (LazyTrace.this) {
+                    cursor = checkpoints[0].copy();
+                }
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public S next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        if (next > 0) {
+                            cursor.advance();
+                        }
+                        next++;
+                        return cursor.current();
+                    }
+                };
+            }
+        };
+    }
+}
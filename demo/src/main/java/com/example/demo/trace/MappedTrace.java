@@ -0,0 +1,453 @@
+package com.example.demo.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * A {@link DeltaTrace} moved into a memory-mapped file, so its columns and
+ * keyframes no longer sit on the heap for the collector to trace and copy.
+ * The heap keeps only this handle, the animation table and the decoder.
+ *
+ * <p>The mapped body holds five sections. First come fixed-width step
+ * records: {@code first, second, line, sorted.from, sorted.to, writeEnd,
+ * countDelta} as ints followed by the op byte, padded to
+ * {@value #STEP_BYTES} bytes, so step {@code n} sits at
+ * {@code n * STEP_BYTES}. Then the writes as {@code (index, value)} int
+ * pairs. Then the keyframes, one after another. Then the steps with
+ * absolute operation counts, see {@link CountDeltas}, followed by their
+ * totals as longs. Last the steps where the registers changed, followed by
+ * the register snapshots.
+ * A step is rebuilt like in {@link DeltaTrace}, reading the mapping with
+ * absolute gets, which are safe from any number of threads.
+ *
+ * <p>{@link #map} writes the body alone to a file that is deleted as soon
+ * as it is mapped; its space is reclaimed when the trace becomes
+ * unreachable and the mapping is collected. {@link #save} precedes the body
+ * with a header describing it, so {@link #load} can map the trace again in
+ * another process.
+ */
+public final class MappedTrace<S> implements Trace<S> {
+    static final int STEP_BYTES = 32;
+    private static final int COMPLETED_FLAG = StepRecorder.COMPLETED_FLAG;
+    // Changes whenever the body layout does, so older files are refused
+    private static final int MAGIC = 0x54524333;
+
+    /**
+     * Everything but the body needed to read a trace back.
+     */
+    private record Layout(String algorithm, String[] animations, int arrayLength, int memoryLength,
+                          int keyframeInterval, int size, int writeCount, int keyframes, int absoluteCount,
+                          int registerCount, int registerSets) {
+
+        static Layout of(DeltaTrace<?> trace) {
+            return new Layout(trace.algorithm, trace.animations, trace.arrayLength, trace.memoryLength,
+                trace.keyframeInterval, trace.size, trace.size == 0 ? 0 : trace.writeEnds[trace.size - 1],
+                trace.keyframes.length, trace.absoluteCount, trace.registerCount, trace.registerSetCount);
+        }
+
+        long bodyBytes() {
+            return (long) size * STEP_BYTES + 8L * writeCount + 4L * keyframes * memoryLength
+                + (4L + 3 * 8) * absoluteCount + 4L * (1 + registerCount) * registerSets;
+        }
+
+        byte[] header() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(algorithm);
+            out.writeInt(animations.length);
+            for (String animation : animations) {
+                out.writeBoolean(animation != null);
+                if (animation != null) {
+                    out.writeUTF(animation);
+                }
+            }
+            for (int field : new int[] {arrayLength, memoryLength, keyframeInterval, size, writeCount, keyframes,
+                    absoluteCount, registerCount, registerSets}) {
+                out.writeInt(field);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Layout read(DataInputStream in) throws IOException {
+            String algorithm = in.readUTF();
+            String[] animations = new String[in.readInt()];
+            for (int i = 0; i < animations.length; i++) {
+                animations[i] = in.readBoolean() ? in.readUTF() : null;
+            }
+            return new Layout(algorithm, animations, in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        }
+    }
+
+    private final Layout layout;
+    private final String algorithm;
+    private final int arrayLength;
+    private final int memoryLength;
+    private final String[] animations;
+    private final DeltaTrace.Decoder<S> decoder;
+    private final int keyframeInterval;
+    private final int size;
+
+    private final ByteBuffer steps;
+    private final IntBuffer ints;
+    private final int writesOffset;
+    private final int keyframesOffset;
+    private final int absoluteOffset;
+    private final int absoluteCount;
+    private final int registerCount;
+    private final int registerSets;
+    private final int registersOffset;
+
+    private MappedTrace(Layout layout, DeltaTrace.Decoder<S> decoder, ByteBuffer body) {
+        this.layout = layout;
+        this.algorithm = layout.algorithm();
+        this.arrayLength = layout.arrayLength();
+        this.memoryLength = layout.memoryLength();
+        this.animations = layout.animations();
+        this.decoder = decoder;
+        this.keyframeInterval = layout.keyframeInterval();
+        this.size = layout.size();
+        this.steps = body;
+        this.ints = body.asIntBuffer();
+        this.writesOffset = size * (STEP_BYTES / 4);
+        this.keyframesOffset = writesOffset + 2 * layout.writeCount();
+        this.absoluteOffset = keyframesOffset + layout.keyframes() * memoryLength;
+        this.absoluteCount = layout.absoluteCount();
+        this.registerCount = layout.registerCount();
+        this.registerSets = layout.registerSets();
+        this.registersOffset = absoluteOffset + absoluteCount + 6 * absoluteCount;
+    }
+
+    /**
+     * The size of the body {@link #map} writes for {@code trace}.
+     */
+    static long fileBytes(DeltaTrace<?> trace) {
+        return Layout.of(trace).bodyBytes();
+    }
+
+    /**
+     * Writes {@code trace} to a new file in {@code directory} and maps it.
+     * The trace must fit one mapping, i.e. {@link #fileBytes} must not
+     * exceed {@link Integer#MAX_VALUE}.
+     */
+    static <S> MappedTrace<S> map(DeltaTrace<S> trace, Path directory) throws IOException {
+        Layout layout = Layout.of(trace);
+        long bytes = checkedBodyBytes(layout, 0);
+        Path file = Files.createTempFile(directory, "trace-", ".bin");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+        writeBody(trace, buffer);
+        return new MappedTrace<>(layout, trace.decoder, buffer);
+    }
+
+    /**
+     * Writes a recorded trace, on the heap or mapped, to {@code file} with a
+     * header, replacing the file atomically so readers never see it half
+     * written.
+     */
+    static void save(Trace<?> trace, Path file) throws IOException {
+        Layout layout;
+        if (trace instanceof MappedTrace<?> mapped) {
+            layout = mapped.layout;
+        } else if (trace instanceof DeltaTrace<?> recorded) {
+            layout = Layout.of(recorded);
+        } else {
+            throw new IllegalArgumentException("Only recorded traces can be saved");
+        }
+        byte[] header = layout.header();
+        int bodyOffset = (8 + header.length + 3) & ~3;
+        long bytes = checkedBodyBytes(layout, bodyOffset);
+
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bodyOffset + bytes);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, header.length);
+                buffer.put(8, header);
+                ByteBuffer body = buffer.slice(bodyOffset, (int) bytes);
+                if (trace instanceof MappedTrace<?> mapped) {
+                    body.put(0, mapped.steps, 0, (int) bytes);
+                } else {
+                    writeBody((DeltaTrace<?>) trace, body);
+                }
+                buffer.force();
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a trace written by {@link #save}, read-only, decoding its steps
+     * with the decoder {@code decoders} returns for its algorithm. Returns
+     * null when there is none.
+     */
+    @SuppressWarnings("unchecked")
+    static <S> MappedTrace<S> load(Path file, Function<String, DeltaTrace.Decoder<?>> decoders) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a trace file: " + file);
+        }
+        byte[] header = new byte[buffer.getInt(4)];
+        buffer.get(8, header);
+        Layout layout = Layout.read(new DataInputStream(new ByteArrayInputStream(header)));
+        int bodyOffset = (8 + header.length + 3) & ~3;
+        if (bodyOffset + layout.bodyBytes() != buffer.capacity()) {
+            throw new IOException("Truncated trace file: " + file);
+        }
+        DeltaTrace.Decoder<?> decoder = decoders.apply(layout.algorithm());
+        if (decoder == null) {
+            return null;
+        }
+        return new MappedTrace<>(layout, (DeltaTrace.Decoder<S>) decoder,
+            buffer.slice(bodyOffset, (int) layout.bodyBytes()));
+    }
+
+    private static long checkedBodyBytes(Layout layout, int offset) throws IOException {
+        long bytes = layout.bodyBytes();
+        if (offset + bytes > Integer.MAX_VALUE) {
+            throw new IOException("Trace of " + bytes + " bytes does not fit one mapping");
+        }
+        return bytes;
+    }
+
+    private static void writeBody(DeltaTrace<?> trace, ByteBuffer buffer) {
+        for (int i = 0; i < trace.size; i++) {
+            int offset = i * STEP_BYTES;
+            buffer.putInt(offset, trace.first[i]);
+            buffer.putInt(offset + 4, trace.second[i]);
+            buffer.putInt(offset + 8, trace.lines[i]);
+            buffer.putInt(offset + 12, trace.sortedRanges[i].from());
+            buffer.putInt(offset + 16, trace.sortedRanges[i].to());
+            buffer.putInt(offset + 20, trace.writeEnds[i]);
+            buffer.putInt(offset + 24, trace.countDeltas[i]);
+            buffer.put(offset + 28, trace.ops[i]);
+        }
+        IntBuffer ints = buffer.asIntBuffer();
+        int position = trace.size * (STEP_BYTES / 4);
+        int writeCount = trace.size == 0 ? 0 : trace.writeEnds[trace.size - 1];
+        for (int w = 0; w < writeCount; w++) {
+            ints.put(position++, trace.writeIndices[w]);
+            ints.put(position++, trace.writeValues[w]);
+        }
+        for (int[] keyframe : trace.keyframes) {
+            ints.put(position, keyframe);
+            position += keyframe.length;
+        }
+        ints.put(position, trace.absoluteSteps, 0, trace.absoluteCount);
+        int countsOffset = 4 * (position + trace.absoluteCount);
+        for (int i = 0; i < 3 * trace.absoluteCount; i++) {
+            buffer.putLong(countsOffset + 8 * i, trace.absoluteCounts[i]);
+        }
+        position = (countsOffset + 3 * 8 * trace.absoluteCount) / 4;
+        ints.put(position, trace.registerSteps, 0, trace.registerSetCount);
+        ints.put(position + trace.registerSetCount, trace.registerValues, 0,
+            trace.registerSetCount * trace.registerCount);
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public S step(int stepNumber) {
+        if (stepNumber < 0 || stepNumber >= size) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        int[] memory = seek(stepNumber);
+        return decode(stepNumber, memory);
+    }
+
+    @Override
+    public List<S> steps() {
+        return new StepList();
+    }
+
+    @Override
+    public List<S> range(int from, int to) {
+        int[] memory = seek(from);
+        List<S> steps = new ArrayList<>(to - from);
+        steps.add(decode(from, memory));
+        for (int i = from + 1; i < to; i++) {
+            replay(memory, i - 1, i);
+            steps.add(decode(i, memory));
+        }
+        return steps;
+    }
+
+    @Override
+    public OperationCounts operations(int stepNumber) {
+        if (stepNumber < 0 || stepNumber >= size) {
+            throw new IndexOutOfBoundsException(stepNumber);
+        }
+        long comparisons = 0;
+        long swaps = 0;
+        long auxWrites = 0;
+        int step = stepNumber;
+        for (int delta; (delta = steps.getInt(step * STEP_BYTES + 24)) != CountDeltas.ABSOLUTE; step--) {
+            comparisons += CountDeltas.comparisons(delta);
+            swaps += CountDeltas.swaps(delta);
+            auxWrites += CountDeltas.auxWrites(delta);
+        }
+        int entry = 4 * (absoluteOffset + absoluteCount) + 3 * 8 * absoluteEntry(step);
+        comparisons += steps.getLong(entry);
+        swaps += steps.getLong(entry + 8);
+        auxWrites += steps.getLong(entry + 16);
+        return new OperationCounts(comparisons, swaps, writeEnd(stepNumber) - auxWrites, auxWrites,
+            memoryLength - arrayLength);
+    }
+
+    /**
+     * Binary search for a step stored with absolute counts.
+     */
+    private int absoluteEntry(int step) {
+        int low = 0;
+        int high = absoluteCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ints.get(absoluteOffset + mid) < step) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The registers in effect at {@code stepNumber}, found by binary search
+     * over the steps where they changed, or null when there are none.
+     */
+    private int[] registers(int stepNumber) {
+        if (registerCount == 0) {
+            return null;
+        }
+        int low = 0;
+        int high = registerSets - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (ints.get(registersOffset + mid) <= stepNumber) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int[] registers = new int[registerCount];
+        ints.get(registersOffset + registerSets + low * registerCount, registers);
+        return registers;
+    }
+
+    /**
+     * The handle is small, but the mapping is counted as well so the cache
+     * budget still bounds the memory its entries keep mapped.
+     */
+    @Override
+    public long estimatedBytes() {
+        return Footprint.OBJECT_HEADER * 4L + steps.capacity();
+    }
+
+    private int[] seek(int stepNumber) {
+        int keyframe = stepNumber / keyframeInterval;
+        int[] memory = new int[memoryLength];
+        ints.get(keyframesOffset + keyframe * memoryLength, memory);
+        replay(memory, keyframe * keyframeInterval, stepNumber);
+        return memory;
+    }
+
+    private int writeEnd(int stepNumber) {
+        return steps.getInt(stepNumber * STEP_BYTES + 20);
+    }
+
+    private void replay(int[] memory, int fromStep, int toStep) {
+        int end = writesOffset + 2 * writeEnd(toStep);
+        for (int w = writesOffset + 2 * writeEnd(fromStep); w < end; w += 2) {
+            memory[ints.get(w)] = ints.get(w + 1);
+        }
+    }
+
+    private S decode(int stepNumber, int[] memory) {
+        int offset = stepNumber * STEP_BYTES;
+        int op = steps.get(offset + 28) & 0xFF;
+        return decoder.decode(new DeltaTrace.Frame(
+            Arrays.copyOf(memory, arrayLength),
+            memoryLength > arrayLength ? Arrays.copyOfRange(memory, arrayLength, memoryLength) : null,
+            registers(stepNumber),
+            steps.getInt(offset),
+            steps.getInt(offset + 4),
+            animations[op & ~COMPLETED_FLAG],
+            steps.getInt(offset + 8),
+            SortedRange.of(steps.getInt(offset + 12), steps.getInt(offset + 16)),
+            (op & COMPLETED_FLAG) != 0
+        ));
+    }
+
+    private final class StepList extends AbstractList<S> {
+        @Override
+        public S get(int index) {
+            return step(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<S> iterator() {
+            return new Iterator<>() {
+                private int[] memory;
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public S next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    if (memory == null) {
+                        memory = seek(0);
+                    } else {
+                        replay(memory, next - 1, next);
+                    }
+                    return decode(next++, memory);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Moves recorded traces at or above a size threshold into memory-mapped
+ * files, see {@link MappedTrace}. Smaller traces stay on the heap, where a
+ * step is a little cheaper to rebuild and nothing touches the disk.
+ */
+@Component
+public class MappedTraces {
+    private final long minBytes;
+    private final Path directory;
+
+    public MappedTraces(@Value("${trace.offheap.min-size:8MB}") DataSize minSize,
+                        @Value("${trace.offheap.dir:${java.io.tmpdir}}") Path directory) {
+        this.minBytes = minSize.toBytes();
+        this.directory = directory;
+    }
+
+    /**
+     * Returns {@code trace} mapped off-heap if it is a recorded trace of at
+     * least the threshold size, otherwise {@code trace} itself. Should the
+     * file not be writable, the trace stays on the heap rather than failing
+     * the request.
+     */
+    public <S> Trace<S> offload(Trace<S> trace) {
+        if (!(trace instanceof DeltaTrace<S> recorded) || recorded.estimatedBytes() < minBytes
+                || MappedTrace.fileBytes(recorded) > Integer.MAX_VALUE) {
+            return trace;
+        }
+        try {
+            Files.createDirectories(directory);
+            return MappedTrace.map(recorded, directory);
+        } catch (IOException e) {
+            return trace;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.trace;
+
+/**
+ * The work an algorithm did: element comparisons, swaps, writes to the
+ * array (a swap counts as two) and writes to its auxiliary buffer, plus the
+ * length of that buffer, in elements, as its auxiliary memory. Registers
+ * a cursor keeps for its own bookkeeping count as neither.
+ */
+public record OperationCounts(long comparisons, long swaps, long writes, long auxWrites, int auxMemory) {
+}
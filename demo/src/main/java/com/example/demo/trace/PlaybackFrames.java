@@ -0,0 +1,155 @@
+package com.example.demo.trace;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Steps encoded as JSON for the playback channel, shared by every viewer of
+ * the same trace id. Steps are rebuilt and encoded in blocks of
+ * {@value #BLOCK_STEPS}, so viewers playing one trace decode and encode each
+ * step once. Blocks are evicted least recently used first once their heap
+ * size exceeds the configured budget, and dropped with their trace when the
+ * {@link TraceStore} evicts it.
+ *
+ * <p>Only whole blocks of steps that exist are cached, so the tail of a
+ * trace still being recorded is encoded on every read. As in
+ * {@link TraceCache}, encoding runs outside the lock.
+ */
+@Component
+public class PlaybackFrames {
+    static final int BLOCK_STEPS = 64;
+
+    /**
+     * One step as sent in a frame.
+     */
+    record Step(int stepNumber, Object state,
+               @JsonInclude(JsonInclude.Include.NON_NULL) OperationCounts operations) {
+    }
+
+    // Keyed by id rather than by the trace, so a cached block never keeps a
+    // trace alive. Ids are not reused and always resolve to the same steps,
+    // even when a file store maps the trace back in
+    private record Key(String traceId, int block) {
+    }
+
+    // The map entry, key and block holding the encoded steps
+    private static final long BLOCK_OVERHEAD = 4 * Footprint.OBJECT_HEADER + 8L * Footprint.REFERENCE;
+
+    private record Block(String[] steps, long bytes) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final Map<Key, Block> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public PlaybackFrames(ObjectMapper objectMapper, TraceStore traceStore,
+                          @Value("${playback.frame-cache.max-size:16MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxSize.toBytes();
+        traceStore.onEvict(this::evict);
+    }
+
+    /**
+     * Appends steps {@code [from, to)} of the trace stored under
+     * {@code traceId} to {@code json} as a comma-separated list of JSON
+     * objects. The steps must exist in the trace.
+     */
+    public void append(String traceId, Trace<?> trace, int from, int to, StringBuilder json) {
+        for (int block = from / BLOCK_STEPS; block * BLOCK_STEPS < to; block++) {
+            int start = block * BLOCK_STEPS;
+            String[] steps = block(traceId, trace, block);
+            for (int i = Math.max(from, start); i < Math.min(to, start + steps.length); i++) {
+                if (i > from) {
+                    json.append(',');
+                }
+                json.append(steps[i - start]);
+            }
+        }
+    }
+
+    private String[] block(String traceId, Trace<?> trace, int block) {
+        Key key = new Key(traceId, block);
+        synchronized (this) {
+            Block cached = blocks.get(key);
+            if (cached != null) {
+                return cached.steps();
+            }
+        }
+        int start = block * BLOCK_STEPS;
+        int end = Math.min(trace.size(), start + BLOCK_STEPS);
+        String[] steps = encode(trace, start, end);
+        if (end - start < BLOCK_STEPS && !complete(trace)) {
+            return steps;
+        }
+        long weight = BLOCK_OVERHEAD + Footprint.OBJECT_HEADER + (long) Footprint.REFERENCE * steps.length;
+        for (String step : steps) {
+            weight += Footprint.string(step.length());
+        }
+        if (weight <= maxBytes) {
+            synchronized (this) {
+                if (blocks.putIfAbsent(key, new Block(steps, weight)) == null) {
+                    bytes += weight;
+                    evictOverBudget();
+                }
+            }
+        }
+        return steps;
+    }
+
+    private String[] encode(Trace<?> trace, int from, int to) {
+        List<?> states = trace.range(from, to);
+        String[] steps = new String[states.size()];
+        try {
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = objectMapper.writeValueAsString(
+                    new Step(from + i, states.get(i), trace.operations(from + i)));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode step", e);
+        }
+        return steps;
+    }
+
+    // The last block of a trace still being recorded may grow
+    private static boolean complete(Trace<?> trace) {
+        return !(trace instanceof AsyncTrace<?> job) || job.status() == AsyncTrace.Status.DONE;
+    }
+
+    /**
+     * Drops the blocks of a trace the store no longer holds. A viewer still
+     * playing it may cache blocks again, which then age out as usual.
+     */
+    private synchronized void evict(String traceId) {
+        Iterator<Map.Entry<Key, Block>> entries = blocks.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Key, Block> entry = entries.next();
+            if (entry.getKey().traceId().equals(traceId)) {
+                bytes -= entry.getValue().bytes();
+                entries.remove();
+            }
+        }
+    }
+
+    synchronized long cachedBytes() {
+        return bytes;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Block> eldest = blocks.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+}
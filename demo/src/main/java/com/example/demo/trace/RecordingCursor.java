@@ -0,0 +1,243 @@
+package com.example.demo.trace;
+
+import java.util.Arrays;
+
+/**
+ * A {@link StepCursor} that can also feed a {@link StepRecorder}. Algorithms
+ * whose natural form is recursive are written once as an explicit state
+ * machine on top of this class instead of twice (a generator and a cursor):
+ * {@link #run()} records the eager trace and the same class serves lazy
+ * traces, decoding its steps with the algorithm's own decoder.
+ *
+ * <p>Memory and the step API mirror {@link StepRecorder}: the sorted array
+ * followed by an optional auxiliary buffer, and optional registers for the
+ * cursor's own bookkeeping. Subclasses implement
+ * {@link #next()} and call {@link #start()} at the end of their constructor.
+ *
+ * <p>The cursor counts its operations itself as well, so lazy traces report
+ * the same counts as recorded ones.
+ */
+public abstract class RecordingCursor<S> implements StepCursor<S> {
+    private final int arrayLength;
+    private final int[] memory;
+    private final int[] registers;
+    private final String[] animations;
+    private final DeltaTrace.Decoder<S> decoder;
+    // Null for lazy cursors and their copies
+    private final StepRecorder<S> steps;
+
+    private int position = -1;
+    private int animation;
+    private int first;
+    private int second;
+    private int line;
+    private boolean completed;
+    private SortedRange sorted = SortedRange.EMPTY;
+    private long comparisons;
+    private long swaps;
+    private long writes;
+    private long auxWrites;
+
+    /**
+     * @param steps the recorder to feed, or null when used as a lazy cursor
+     */
+    protected RecordingCursor(int[] array, int auxLength, String[] animations,
+                              DeltaTrace.Decoder<S> decoder, StepRecorder<S> steps) {
+        this(array, auxLength, 0, animations, decoder, steps);
+    }
+
+    /**
+     * @param steps the recorder to feed, or null when used as a lazy cursor
+     */
+    protected RecordingCursor(int[] array, int auxLength, int registerCount, String[] animations,
+                              DeltaTrace.Decoder<S> decoder, StepRecorder<S> steps) {
+        this.arrayLength = array.length;
+        this.memory = Arrays.copyOf(array, array.length + auxLength);
+        this.registers = new int[registerCount];
+        this.animations = animations;
+        this.decoder = decoder;
+        this.steps = steps;
+        if (steps != null && auxLength > 0) {
+            steps.auxiliary(new int[auxLength]);
+        }
+        if (steps != null && registerCount > 0) {
+            steps.registers(registerCount);
+        }
+    }
+
+    /**
+     * Copies the state of {@code other}; the copy never records.
+     */
+    protected RecordingCursor(RecordingCursor<S> other) {
+        this.arrayLength = other.arrayLength;
+        this.memory = other.memory.clone();
+        this.registers = other.registers.clone();
+        this.animations = other.animations;
+        this.decoder = other.decoder;
+        this.steps = null;
+        this.position = other.position;
+        this.animation = other.animation;
+        this.first = other.first;
+        this.second = other.second;
+        this.line = other.line;
+        this.completed = other.completed;
+        this.sorted = other.sorted;
+        this.comparisons = other.comparisons;
+        this.swaps = other.swaps;
+        this.writes = other.writes;
+        this.auxWrites = other.auxWrites;
+    }
+
+    /**
+     * Performs the work up to and including exactly one call to
+     * {@link #step}.
+     */
+    protected abstract void next();
+
+    /**
+     * Moves onto step 0.
+     */
+    protected final void start() {
+        next();
+    }
+
+    /**
+     * Runs to the final step, recording every step on the way.
+     */
+    public final void run() {
+        while (!completed) {
+            next();
+        }
+    }
+
+    /**
+     * Runs to the final step and returns how many steps the trace has,
+     * stopping early once the count no longer fits a trace.
+     */
+    public final long countSteps() {
+        long count = position + 1;
+        while (!completed && count <= Integer.MAX_VALUE) {
+            next();
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public final int position() {
+        return position;
+    }
+
+    @Override
+    public final void advance() {
+        if (completed) {
+            throw new IllegalStateException("Trace is complete");
+        }
+        next();
+    }
+
+    @Override
+    public final S current() {
+        return decoder.decode(new DeltaTrace.Frame(
+            Arrays.copyOf(memory, arrayLength),
+            memory.length > arrayLength ? Arrays.copyOfRange(memory, arrayLength, memory.length) : null,
+            registers.length > 0 ? registers.clone() : null,
+            first,
+            second,
+            animations[animation],
+            line,
+            sorted,
+            completed
+        ));
+    }
+
+    @Override
+    public final OperationCounts counts() {
+        return new OperationCounts(comparisons, swaps, writes, auxWrites, memory.length - arrayLength);
+    }
+
+    protected final void write(int index, int value) {
+        writes++;
+        memory[index] = value;
+        if (steps != null) {
+            steps.write(index, value);
+        }
+    }
+
+    protected final void writeAux(int index, int value) {
+        auxWrites++;
+        memory[arrayLength + index] = value;
+        if (steps != null) {
+            steps.writeAux(index, value);
+        }
+    }
+
+    /**
+     * Sets a register; registers are not counted as memory or writes.
+     */
+    protected final void register(int index, int value) {
+        registers[index] = value;
+        if (steps != null) {
+            steps.register(index, value);
+        }
+    }
+
+    protected final void swap(int i, int j) {
+        int value = memory[i];
+        write(i, memory[j]);
+        write(j, value);
+        swaps++;
+        if (steps != null) {
+            steps.countSwap();
+        }
+    }
+
+    /**
+     * Counts one element comparison, reporting it to the recorder too.
+     */
+    protected final void countComparison() {
+        countComparisons(1);
+    }
+
+    protected final void countComparisons(int count) {
+        comparisons += count;
+        if (steps != null) {
+            steps.countComparisons(count);
+        }
+    }
+
+    protected final int get(int index) {
+        return memory[index];
+    }
+
+    protected final int getAux(int index) {
+        return memory[arrayLength + index];
+    }
+
+    protected final int length() {
+        return arrayLength;
+    }
+
+    protected final void markSorted(int index) {
+        sorted(sorted.extend(index));
+    }
+
+    protected final void sorted(SortedRange range) {
+        sorted = range;
+        if (steps != null) {
+            steps.sorted(range);
+        }
+    }
+
+    protected final void step(int animation, int firstIndex, int secondIndex, int line, boolean completed) {
+        this.animation = animation;
+        this.first = firstIndex;
+        this.second = secondIndex;
+        this.line = line;
+        this.completed = completed;
+        position++;
+        if (steps != null) {
+            steps.step(animation, firstIndex, secondIndex, line, completed);
+        }
+    }
+}
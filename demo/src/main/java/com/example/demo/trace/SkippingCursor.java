@@ -0,0 +1,61 @@
+package com.example.demo.trace;
+
+/**
+ * Plays every k-th step of another cursor plus its final step, advancing
+ * over the skipped ones without materializing them. Matches what a
+ * {@link StepRecorder} keeps at {@link Granularity.Level#EVERY}.
+ */
+public final class SkippingCursor<S> implements StepCursor<S> {
+    private final StepCursor<S> inner;
+    private final int every;
+    private final int lastStep;
+    private int position;
+
+    /**
+     * @param steps the number of steps {@code inner} generates
+     */
+    public SkippingCursor(StepCursor<S> inner, int every, long steps) {
+        this.inner = inner;
+        this.every = every;
+        this.lastStep = LazyTrace.checkedSize(steps) - 1;
+    }
+
+    private SkippingCursor(SkippingCursor<S> other) {
+        this.inner = other.inner.copy();
+        this.every = other.every;
+        this.lastStep = other.lastStep;
+        this.position = other.position;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public void advance() {
+        int target = (int) Math.min((long) inner.position() + every, lastStep);
+        while (inner.position() < target) {
+            inner.advance();
+        }
+        position++;
+    }
+
+    @Override
+    public S current() {
+        return inner.current();
+    }
+
+    /**
+     * Includes the work of the skipped steps.
+     */
+    @Override
+    public OperationCounts counts() {
+        return inner.counts();
+    }
+
+    @Override
+    public SkippingCursor<S> copy() {
+        return new SkippingCursor<>(this);
+    }
+}
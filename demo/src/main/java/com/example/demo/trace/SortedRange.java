@@ -0,0 +1,44 @@
+package com.example.demo.trace;
+
+/**
+ * The sorted region of a step as a half-open index range. Every generator
+ * keeps its sorted region contiguous, growing it from one end of the array
+ * or replacing it as a whole, so two watermarks replace the list of indices
+ * both in memory and on the wire.
+ */
+public record SortedRange(int from, int to) {
+
+    public static final SortedRange EMPTY = new SortedRange(0, 0);
+
+    public static SortedRange of(int from, int to) {
+        return to > from ? new SortedRange(from, to) : EMPTY;
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean contains(int index) {
+        return index >= from && index < to;
+    }
+
+    /**
+     * The range with {@code index} added; it must be adjacent to the
+     * current range.
+     */
+    public SortedRange extend(int index) {
+        if (size() == 0) {
+            return new SortedRange(index, index + 1);
+        }
+        if (index == from - 1) {
+            return new SortedRange(index, to);
+        }
+        if (index == to) {
+            return new SortedRange(from, index + 1);
+        }
+        if (contains(index)) {
+            return this;
+        }
+        throw new IllegalStateException("Sorted region must stay contiguous");
+    }
+}
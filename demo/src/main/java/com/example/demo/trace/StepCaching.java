@@ -0,0 +1,176 @@
+package com.example.demo.trace;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Serves responses addressed by a trace id as immutable resources. A step of
+ * a stored trace never changes, and neither do ranges or the full list once
+ * the trace is complete, so they get a strong ETag and a long
+ * {@code Cache-Control} lifetime marked immutable: replays are served from
+ * the browser cache, and a revalidation is answered with
+ * {@code 304 Not Modified} before the body is built.
+ *
+ * <p>The tag is made from the trace id, the resource and the representation:
+ * the media type negotiated from {@code Accept}, JSON or the binary step
+ * encoding, and the content coding. Tomcat does not compress responses carrying a strong
+ * ETag, so these are gzipped here instead: streamed bodies directly, bodies
+ * written by a message converter through {@link StepCompressionFilter}.
+ */
+@Component
+public class StepCaching {
+    private static final String GZIP = "gzip";
+    // In the order the message converters offer them, see TraceWebConfig
+    private static final List<MediaType> REPRESENTATIONS =
+        List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_OCTET_STREAM);
+
+    private final CacheControl cacheControl;
+
+    public StepCaching(@Value("${trace.http.max-age:365d}") Duration maxAge) {
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().immutable();
+    }
+
+    /**
+     * Returns {@code response} with caching headers, or a 304 without calling
+     * it when the client holds the same representation. Responses of a trace
+     * still being generated may change, so they are returned unchanged. The
+     * caller checks that the trace exists first: it is not looked up here.
+     *
+     * @param resource names the response within the trace, e.g. the step
+     * @param complete whether the trace is no longer being generated
+     */
+    public <T> ResponseEntity<T> immutable(HttpServletRequest request, String traceId, String resource,
+                                           boolean complete, Supplier<ResponseEntity<T>> response) {
+        return immutable(request, traceId, resource, negotiate(request), complete, response);
+    }
+
+    /**
+     * As {@link #immutable(HttpServletRequest, String, String, boolean, Supplier)},
+     * for a response whose media type does not depend on {@code Accept}.
+     */
+    public <T> ResponseEntity<T> immutable(HttpServletRequest request, String traceId, String resource,
+                                           MediaType mediaType, boolean complete,
+                                           Supplier<ResponseEntity<T>> response) {
+        if (traceId == null || traceId.isBlank() || !complete) {
+            return response.get();
+        }
+        boolean gzip = acceptsGzip(request);
+        String etag = "\"" + traceId + "/" + resource + "/" + mediaType.getSubtype()
+            + (gzip ? "+" + GZIP : "") + "\"";
+        if (new ServletWebRequest(request).checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        ResponseEntity<T> built = response.get();
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(built.getHeaders());
+        T body = built.getBody();
+        if (gzip && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            if (body instanceof StreamingResponseBody streamed) {
+                body = gzipped(streamed);
+            } else {
+                StepCompressionFilter.compress(request);
+            }
+        }
+        return ResponseEntity.status(built.getStatusCode())
+            .headers(headers)
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+            .body(body);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T gzipped(StreamingResponseBody body) {
+        StreamingResponseBody compressed = out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, true);
+            body.writeTo(gzip);
+            gzip.finish();
+        };
+        return (T) compressed;
+    }
+
+    /**
+     * The media type the message converters will write a step body in,
+     * picked by the same rules: the representations the client accepts, by
+     * quality and then specificity, with JSON first among equals. A header
+     * that allows neither is answered 406 before the tag is sent, so it is
+     * tagged as JSON.
+     */
+    static MediaType negotiate(HttpServletRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(Collections.list(request.getHeaders(HttpHeaders.ACCEPT)));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        if (accepted.isEmpty()) {
+            accepted = List.of(MediaType.ALL);
+        }
+        List<MediaType> usable = new ArrayList<>();
+        for (MediaType acceptedType : accepted) {
+            for (MediaType representation : REPRESENTATIONS) {
+                if (acceptedType.isCompatibleWith(representation)) {
+                    usable.add(representation.copyQualityValue(acceptedType));
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(usable);
+        return usable.isEmpty() ? MediaType.APPLICATION_JSON : usable.get(0).removeQualityValue();
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip. Brotli is not offered:
+     * neither the JDK nor Tomcat can encode it.
+     */
+    public static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (values != null && values.hasMoreElements()) {
+            for (String coding : values.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                if (parts[0].trim().equalsIgnoreCase(GZIP) && !rejected(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean rejected(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
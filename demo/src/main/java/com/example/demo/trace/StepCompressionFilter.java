@@ -0,0 +1,167 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Gzips the bodies {@link StepCaching} marked for compression, which Tomcat
+ * leaves alone because they carry a strong ETag. Only bodies written on the
+ * request thread by a message converter are marked; other responses pass
+ * through untouched.
+ */
+@Component
+public class StepCompressionFilter extends OncePerRequestFilter {
+    private static final String COMPRESS = StepCompressionFilter.class.getName() + ".COMPRESS";
+
+    static void compress(HttpServletRequest request) {
+        request.setAttribute(COMPRESS, Boolean.TRUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GzipResponse gzipResponse = new GzipResponse(request, response);
+        chain.doFilter(request, gzipResponse);
+        gzipResponse.finish();
+    }
+
+    /**
+     * Switches to a gzip stream when the body is first written, if by then
+     * the request was marked and the response is a 200.
+     */
+    private static final class GzipResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private GzipStream stream;
+        private PrintWriter writer;
+
+        GzipResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        private boolean compressing() {
+            return request.getAttribute(COMPRESS) != null && getStatus() == SC_OK;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream != null) {
+                return stream;
+            }
+            if (!compressing()) {
+                return super.getOutputStream();
+            }
+            stream = new GzipStream(super.getOutputStream());
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer != null) {
+                return writer;
+            }
+            if (!compressing()) {
+                return super.getWriter();
+            }
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            return writer;
+        }
+
+        // The length of the uncompressed body would be wrong
+        @Override
+        public void setContentLength(int length) {
+            if (!compressing()) {
+                super.setContentLength(length);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (!compressing()) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.finish();
+            }
+        }
+    }
+
+    private static final class GzipStream extends ServletOutputStream {
+        private final ServletOutputStream target;
+        private final GZIPOutputStream gzip;
+        private boolean finished;
+
+        GzipStream(ServletOutputStream target) throws IOException {
+            this.target = target;
+            this.gzip = new GZIPOutputStream(target, true);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            gzip.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            gzip.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gzip.flush();
+        }
+
+        void finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                gzip.finish();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            target.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            target.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.trace;
+
+/**
+ * A resumable run of a sort algorithm that produces its trace one step at a
+ * time. A cursor starts on step 0 and only moves forward; {@link #copy()}
+ * takes an independent snapshot that can later be resumed from, which is
+ * how {@link LazyTrace} checkpoints long traces.
+ */
+public interface StepCursor<S> {
+
+    /**
+     * The step the cursor is currently on.
+     */
+    int position();
+
+    /**
+     * Moves to the next step. Must not be called on the last step.
+     */
+    void advance();
+
+    /**
+     * Materializes the current step. The returned state is owned by the caller.
+     */
+    S current();
+
+    /**
+     * The work done up to and including the current step, or null if the
+     * cursor does not keep count.
+     */
+    default OperationCounts counts() {
+        return null;
+    }
+
+    StepCursor<S> copy();
+}
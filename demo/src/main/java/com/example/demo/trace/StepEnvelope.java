@@ -0,0 +1,12 @@
+package com.example.demo.trace;
+
+/**
+ * The per-step response wrapper each algorithm returns from {@code /step/{n}}.
+ * Only the step number and state go into the binary encoding.
+ */
+public interface StepEnvelope {
+
+    BinaryEncodable getState();
+
+    int getStepNumber();
+}
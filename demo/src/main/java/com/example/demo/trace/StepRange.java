@@ -0,0 +1,59 @@
+package com.example.demo.trace;
+
+import java.util.List;
+
+/**
+ * A contiguous window of steps {@code [from, to)} from one trace, sent in a
+ * single response so players can prefetch ahead of playback. The step
+ * count and window bounds are carried once for the whole window.
+ */
+public class StepRange<S> {
+    public static final int MAX_STEPS = 1000;
+
+    private final int totalSteps;
+    private final int from;
+    private final int to;
+    private final List<S> steps;
+
+    private StepRange(int totalSteps, int from, int to, List<S> steps) {
+        this.totalSteps = totalSteps;
+        this.from = from;
+        this.to = to;
+        this.steps = steps;
+    }
+
+    /**
+     * Reads {@code [from, to)} from the trace. A missing or too distant
+     * {@code to} is clamped to {@value #MAX_STEPS} steps and the end of
+     * the trace.
+     */
+    public static <S> StepRange<S> of(Trace<S> trace, int from, Integer to) {
+        if (from < 0 || from >= trace.size()) {
+            throw new IllegalArgumentException("Invalid step number");
+        }
+        int end = Math.min(trace.size(), from + MAX_STEPS);
+        if (to != null) {
+            if (to <= from) {
+                throw new IllegalArgumentException("Invalid step range");
+            }
+            end = Math.min(end, to);
+        }
+        return new StepRange<>(trace.size(), from, end, trace.range(from, end));
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public List<S> getSteps() {
+        return steps;
+    }
+}
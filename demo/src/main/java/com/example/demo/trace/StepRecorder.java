@@ -0,0 +1,327 @@
+package com.example.demo.trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects a trace while a generator runs, shared by every algorithm.
+ * Steps are appended to primitive columns that grow by doubling, so
+ * recording a step allocates nothing beyond the occasional keyframe.
+ * Writes and sorted marks are attributed to the next call to {@link #step}.
+ *
+ * <p>An algorithm that works on a second buffer (counts, merge output)
+ * declares it with {@link #auxiliary} before the first step. The recorder
+ * treats the sorted array followed by that buffer as one block of memory,
+ * so auxiliary writes are replayed and keyframed with the rest.
+ *
+ * <p>Registers declared with {@link #registers} (the bounds and depth of a
+ * recursive call, say) are bookkeeping rather than algorithm memory. They
+ * are neither replayed nor counted; each kept step after a change stores a
+ * snapshot of them instead, which the steps up to the next change share.
+ *
+ * <p>A {@link Granularity} other than {@link Granularity#ALL} drops steps as
+ * they are generated; the writes of a dropped step are attributed to the
+ * next kept one, so nothing is stored for it.
+ *
+ * <p>Generators report comparisons with {@link #countComparison()}; swaps
+ * and writes are counted as they are recorded. Counts cover every generated
+ * step, including the ones a granularity drops, see {@link #counts()}.
+ * Kept steps also store what they added to the counts, see
+ * {@link CountDeltas}, so a trace can tell the work done up to any step;
+ * array writes are not stored, they are the write end less the auxiliary
+ * writes.
+ *
+ * <p>Not thread-safe; the built trace is, and so are the snapshots handed
+ * to an {@link #onProgress} listener.
+ */
+public final class StepRecorder<S> {
+    static final int COMPLETED_FLAG = 0x80;
+
+    final String algorithm;
+    final int[] initialArray;
+    final String[] animations;
+    final DeltaTrace.Decoder<S> decoder;
+    private final Granularity granularity;
+    private int maxSteps = Integer.MAX_VALUE;
+    int[] current;
+
+    int size;
+    byte[] ops = new byte[16];
+    int[] first = new int[16];
+    int[] second = new int[16];
+    int[] lines = new int[16];
+    SortedRange[] sortedRanges = new SortedRange[16];
+    int[] writeEnds = new int[16];
+    int[] countDeltas = new int[16];
+
+    private SortedRange sorted = SortedRange.EMPTY;
+    private long generated;
+
+    private long comparisons;
+    private long swaps;
+    private long arrayWrites;
+    private long auxWrites;
+    private long keptComparisons;
+    private long keptSwaps;
+    private long keptAuxWrites;
+
+    // Steps stored as CountDeltas.ABSOLUTE, and their totals three at a time
+    int absoluteCount;
+    int[] absoluteSteps = new int[4];
+    long[] absoluteCounts = new long[12];
+
+    int writeCount;
+    int[] writeIndices = new int[16];
+    int[] writeValues = new int[16];
+
+    final List<int[]> keyframes = new ArrayList<>();
+    int keyframeInterval;
+
+    // Steps where the registers changed, and the registers from then on
+    int registerCount;
+    int registerSetCount;
+    int[] registerSteps = new int[4];
+    int[] registerValues = new int[0];
+    private int[] registers = new int[0];
+    private boolean registersChanged;
+
+    private Consumer<? super DeltaTrace<S>> progress;
+    private long progressNanos;
+    private long lastProgress;
+
+    /**
+     * Starts recording over a working copy of {@code initialArray}.
+     * Animation codes passed to {@link #step} index into {@code animations}.
+     */
+    public StepRecorder(String algorithm, int[] initialArray, String[] animations, DeltaTrace.Decoder<S> decoder) {
+        this(algorithm, initialArray, animations, decoder, Granularity.ALL);
+    }
+
+    public StepRecorder(String algorithm, int[] initialArray, String[] animations, DeltaTrace.Decoder<S> decoder,
+                        Granularity granularity) {
+        this.algorithm = algorithm;
+        this.granularity = granularity;
+        this.initialArray = initialArray.clone();
+        this.animations = animations;
+        this.decoder = decoder;
+        this.current = initialArray.clone();
+        this.keyframeInterval = DeltaTrace.keyframeInterval(current.length);
+    }
+
+    /**
+     * Fails recording with a {@link TraceTooLargeException} once more than
+     * {@code maxSteps} steps would be kept, for traces admitted on an
+     * estimate that an input can exceed.
+     */
+    public void limit(int maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Declares an auxiliary buffer with the given initial contents. Must be
+     * called before anything is recorded.
+     */
+    public void auxiliary(int[] initial) {
+        if (size > 0 || writeCount > 0) {
+            throw new IllegalStateException("Auxiliary buffer must be declared before recording");
+        }
+        current = Arrays.copyOf(current, initialArray.length + initial.length);
+        System.arraycopy(initial, 0, current, initialArray.length, initial.length);
+        keyframeInterval = DeltaTrace.keyframeInterval(current.length);
+    }
+
+    /**
+     * Declares {@code count} registers, all 0 at first. Must be called
+     * before anything is recorded.
+     */
+    public void registers(int count) {
+        if (size > 0 || writeCount > 0) {
+            throw new IllegalStateException("Registers must be declared before recording");
+        }
+        registerCount = count;
+        registers = new int[count];
+        registerValues = new int[4 * count];
+        registersChanged = true;
+    }
+
+    public void register(int index, int value) {
+        if (registers[index] != value) {
+            registers[index] = value;
+            registersChanged = true;
+        }
+    }
+
+    public void write(int index, int value) {
+        arrayWrites++;
+        record(index, value);
+    }
+
+    public void writeAux(int index, int value) {
+        auxWrites++;
+        record(initialArray.length + index, value);
+    }
+
+    private void record(int position, int value) {
+        if (writeCount == writeIndices.length) {
+            writeIndices = Arrays.copyOf(writeIndices, writeCount * 2);
+            writeValues = Arrays.copyOf(writeValues, writeCount * 2);
+        }
+        writeIndices[writeCount] = position;
+        writeValues[writeCount] = value;
+        writeCount++;
+        current[position] = value;
+    }
+
+    public void swap(int i, int j) {
+        swaps++;
+        int value = current[i];
+        write(i, current[j]);
+        write(j, value);
+    }
+
+    public int get(int index) {
+        return current[index];
+    }
+
+    public void countComparison() {
+        comparisons++;
+    }
+
+    public void countComparisons(int count) {
+        comparisons += count;
+    }
+
+    /**
+     * For generators that swap through two {@link #write} calls.
+     */
+    public void countSwap() {
+        swaps++;
+    }
+
+    public OperationCounts counts() {
+        return new OperationCounts(comparisons, swaps, arrayWrites, auxWrites, auxiliaryLength());
+    }
+
+    int auxiliaryLength() {
+        return current.length - initialArray.length;
+    }
+
+    public int getAux(int index) {
+        return current[initialArray.length + index];
+    }
+
+    public void markSorted(int index) {
+        sorted = sorted.extend(index);
+    }
+
+    /**
+     * Replaces the sorted region, for algorithms whose region does not just
+     * grow.
+     */
+    public void sorted(SortedRange range) {
+        sorted = range;
+    }
+
+    public void step(int animation, int firstIndex, int secondIndex, int line, boolean completed) {
+        long index = generated++;
+        if (index > 0 && !completed && !granularity.keeps(index,
+                writeCount > writeEnds[size - 1], !sorted.equals(sortedRanges[size - 1]))) {
+            return;
+        }
+        if (size == maxSteps) {
+            throw new TraceTooLargeException("Trace has more than " + maxSteps + " steps");
+        }
+        if (size == ops.length) {
+            int capacity = size * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            sortedRanges = Arrays.copyOf(sortedRanges, capacity);
+            writeEnds = Arrays.copyOf(writeEnds, capacity);
+            countDeltas = Arrays.copyOf(countDeltas, capacity);
+        }
+        ops[size] = (byte) (completed ? animation | COMPLETED_FLAG : animation);
+        first[size] = firstIndex;
+        second[size] = secondIndex;
+        lines[size] = line;
+        sortedRanges[size] = sorted;
+        writeEnds[size] = writeCount;
+        if (registersChanged) {
+            recordRegisters();
+        }
+        boolean keyframe = size % keyframeInterval == 0;
+        recordCounts(keyframe);
+        if (keyframe) {
+            keyframes.add(current.clone());
+            size++;
+            publishProgress();
+            return;
+        }
+        size++;
+    }
+
+    private void recordRegisters() {
+        if (registerSetCount == registerSteps.length) {
+            registerSteps = Arrays.copyOf(registerSteps, registerSetCount * 2);
+            registerValues = Arrays.copyOf(registerValues, registerSetCount * 2 * registerCount);
+        }
+        registerSteps[registerSetCount] = size;
+        System.arraycopy(registers, 0, registerValues, registerSetCount * registerCount, registerCount);
+        registerSetCount++;
+        registersChanged = false;
+    }
+
+    private void recordCounts(boolean keyframe) {
+        int delta = keyframe ? CountDeltas.ABSOLUTE
+            : CountDeltas.pack(comparisons - keptComparisons, swaps - keptSwaps, auxWrites - keptAuxWrites);
+        countDeltas[size] = delta;
+        if (delta == CountDeltas.ABSOLUTE) {
+            if (absoluteCount == absoluteSteps.length) {
+                absoluteSteps = Arrays.copyOf(absoluteSteps, absoluteCount * 2);
+                absoluteCounts = Arrays.copyOf(absoluteCounts, absoluteCount * 6);
+            }
+            absoluteSteps[absoluteCount] = size;
+            absoluteCounts[3 * absoluteCount] = comparisons;
+            absoluteCounts[3 * absoluteCount + 1] = swaps;
+            absoluteCounts[3 * absoluteCount + 2] = auxWrites;
+            absoluteCount++;
+        }
+        keptComparisons = comparisons;
+        keptSwaps = swaps;
+        keptAuxWrites = auxWrites;
+    }
+
+    /**
+     * Hands {@code listener} a snapshot of the steps recorded so far, at most
+     * once per {@code intervalNanos}. Snapshots share the recorder's columns
+     * rather than copying them, so taking one costs a copy of the keyframe
+     * list only; they are checked for at keyframes.
+     */
+    public void onProgress(long intervalNanos, Consumer<? super DeltaTrace<S>> listener) {
+        this.progress = listener;
+        this.progressNanos = intervalNanos;
+        this.lastProgress = System.nanoTime();
+    }
+
+    private void publishProgress() {
+        if (progress == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastProgress >= progressNanos) {
+            lastProgress = now;
+            progress.accept(new DeltaTrace<>(this, true));
+        }
+    }
+
+    public int[] currentArray() {
+        return Arrays.copyOf(current, initialArray.length);
+    }
+
+    public DeltaTrace<S> build() {
+        return new DeltaTrace<>(this);
+    }
+}
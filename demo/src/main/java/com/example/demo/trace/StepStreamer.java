@@ -0,0 +1,133 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Writes trace steps to the response one at a time, either as
+ * newline-delimited JSON or as server-sent events. Steps are pulled from the
+ * iterable while the body is written, so a lazy trace is generated as it is
+ * streamed and the full body is never buffered. Output is flushed every
+ * {@value #FLUSH_EVERY} steps.
+ *
+ * <p>Binary downloads of a whole trace are written the same way, unless the
+ * store keeps the steps pre-encoded in a file, which is then sent without
+ * passing through the heap.
+ */
+@Component
+public class StepStreamer {
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 64;
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ObjectMapper objectMapper;
+
+    public StepStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ResponseEntity<StreamingResponseBody> ndjson(Iterable<?> steps) {
+        StreamingResponseBody body = out -> {
+            int written = 0;
+            for (Object step : steps) {
+                out.write(objectMapper.writeValueAsBytes(step));
+                out.write(NEWLINE);
+                flushPeriodically(out, ++written);
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .body(body);
+    }
+
+    public ResponseEntity<StreamingResponseBody> events(Iterable<?> steps) {
+        StreamingResponseBody body = out -> {
+            int written = 0;
+            for (Object step : steps) {
+                out.write(("id:" + written + "\ndata:").getBytes(StandardCharsets.UTF_8));
+                out.write(objectMapper.writeValueAsBytes(step));
+                out.write(EVENT_END);
+                flushPeriodically(out, ++written);
+            }
+            out.write("event:end\ndata:\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_EVENT_STREAM)
+            .cacheControl(CacheControl.noCache())
+            .body(body);
+    }
+
+    /**
+     * The steps in the binary encoding, as {@link BinaryStepConverter}
+     * writes a step list.
+     */
+    public ResponseEntity<StreamingResponseBody> binary(List<?> steps) {
+        StreamingResponseBody body = out -> BinaryStepConverter.write(steps, new BinaryStepWriter(out));
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(body);
+    }
+
+    /**
+     * Sends a file of pre-encoded steps. Where the connector supports it
+     * (Tomcat's NIO connector does), the file is handed to its sendfile
+     * support, which moves it into the socket with
+     * {@link FileChannel#transferTo} once the response is committed.
+     * Otherwise the file is transferred into the response stream. A gzipped
+     * file is sent as is, labelled with its content coding.
+     */
+    public ResponseEntity<StreamingResponseBody> file(TraceStore.EncodedSteps steps, HttpServletRequest request)
+            throws IOException {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .contentLength(steps.length());
+        if (steps.gzipped()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, steps.file().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, steps.length());
+            return response.build();
+        }
+        return response.body(out -> {
+            try (FileChannel channel = FileChannel.open(steps.file())) {
+                WritableByteChannel target = Channels.newChannel(out);
+                for (long sent = 0; sent < steps.length(); ) {
+                    sent += channel.transferTo(sent, steps.length() - sent, target);
+                }
+            }
+        });
+    }
+
+    private static void flushPeriodically(OutputStream out, int written) throws IOException {
+        if (written % FLUSH_EVERY == 0) {
+            out.flush();
+        }
+    }
+}
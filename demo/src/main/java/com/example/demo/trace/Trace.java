@@ -0,0 +1,49 @@
+package com.example.demo.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A generated sort trace. Implementations are immutable once published to
+ * {@link TraceStore} and may be read from any number of request threads.
+ */
+public interface Trace<S> {
+
+    String getAlgorithm();
+
+    int size();
+
+    S step(int stepNumber);
+
+    /**
+     * All steps in order. The list may decode steps on the fly, so callers
+     * should iterate it rather than index into it repeatedly.
+     */
+    List<S> steps();
+
+    /**
+     * Approximate heap retained by the trace, used to weigh it in
+     * {@link TraceCache}.
+     */
+    long estimatedBytes();
+
+    /**
+     * The work done from the start of the run up to and including step
+     * {@code stepNumber}, or null when the trace does not keep count.
+     */
+    default OperationCounts operations(int stepNumber) {
+        return null;
+    }
+
+    /**
+     * Steps {@code [from, to)}, materialized. Implementations that rebuild
+     * steps incrementally override this to avoid seeking once per step.
+     */
+    default List<S> range(int from, int to) {
+        List<S> steps = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            steps.add(step(i));
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.trace;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Shares generated traces between sessions that sort the same input.
+ * Entries are keyed by algorithm, requested mode and the array contents,
+ * weighted by {@link Trace#estimatedBytes()} and evicted least recently
+ * used first once the total weight exceeds the configured budget.
+ *
+ * <p>Generation runs outside the lock, so two sessions missing on the same
+ * key at once may both generate; the first to finish wins and the other
+ * result is dropped.
+ */
+@Component
+public class TraceCache {
+
+    /**
+     * A point-in-time view of the cache counters.
+     */
+    public record Stats(int entries, long bytes, long maxBytes, long hits, long misses, long evictions) {
+    }
+
+    private record Key(String algorithm, boolean lazy, int[] array) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                && lazy == other.lazy
+                && algorithm.equals(other.algorithm)
+                && Arrays.equals(array, other.array);
+        }
+
+        @Override
+        public int hashCode() {
+            return (algorithm.hashCode() * 31 + Boolean.hashCode(lazy)) * 31 + Arrays.hashCode(array);
+        }
+    }
+
+    private record Entry(Trace<?> trace, long bytes) {
+    }
+
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TraceCache(@Value("${trace.cache.max-size:64MB}") DataSize maxSize) {
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * Looks the input up without generating anything, counting a hit or a
+     * miss; callers that generate on a miss later {@link #put} the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <S> Trace<S> find(String algorithm, boolean lazy, int[] array) {
+        Key key = new Key(algorithm, lazy, array);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return (Trace<S>) entry.trace();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a trace generated after a miss and returns the cached one,
+     * which is an earlier trace for the same input if one got there first.
+     * Traces larger than the whole budget are returned without being cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <S> Trace<S> put(String algorithm, boolean lazy, int[] array, Trace<S> trace) {
+        long weight = trace.estimatedBytes();
+        if (weight > maxBytes) {
+            return trace;
+        }
+        Key key = new Key(algorithm, lazy, array.clone());
+        synchronized (this) {
+            Entry existing = entries.putIfAbsent(key, new Entry(trace, weight));
+            if (existing != null) {
+                return (Trace<S>) existing.trace();
+            }
+            bytes += weight;
+            evictOverBudget();
+        }
+        return trace;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), bytes, maxBytes, hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.trace;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sort/cache")
+@CrossOrigin(origins = "*")
+public class TraceCacheController {
+
+    @Autowired
+    private TraceCache traceCache;
+
+    @GetMapping
+    public TraceCache.Stats getStats() {
+        return traceCache.stats();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.trace;
+
+/**
+ * Decodes the steps of one algorithm's recorded traces, looked up by the
+ * name a trace carries. Lets a store read traces back that another process
+ * recorded, see {@link FileTraceStore}.
+ */
+public interface TraceDecoder<S> extends DeltaTrace.Decoder<S> {
+
+    String name();
+}
@@ -0,0 +1,78 @@
+package com.example.demo.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Holds the generated traces of every sort session, keyed by the trace id
+ * handed out from {@code /init}. {@code trace.store.type} picks the
+ * implementation: {@code memory} (default, {@link InMemoryTraceStore}) or
+ * {@code file} ({@link FileTraceStore}), which keeps traces across restarts
+ * and lets instances sharing its directory serve each other's traces.
+ */
+public interface TraceStore {
+
+    String put(Trace<?> trace);
+
+    /**
+     * Stores a trace generated from {@code input} under {@code cacheKey},
+     * the algorithm, options and granularity it was generated with. Traces
+     * put with the same key and input have the same steps, so a store may
+     * keep one copy of them for all their ids.
+     */
+    default String put(Trace<?> trace, String cacheKey, int[] input) {
+        return put(trace);
+    }
+
+    /**
+     * Looks up a trace of the given algorithm by the id {@link #put} handed
+     * out. Returns null when nothing matches.
+     */
+    <S> Trace<S> find(String algorithm, String traceId);
+
+    default <S> Trace<S> get(String algorithm, String traceId) {
+        Trace<S> trace = find(algorithm, traceId);
+        if (trace == null) {
+            throw new UnknownTraceException("Unknown or expired trace");
+        }
+        return trace;
+    }
+
+    /**
+     * The number of traces held in memory.
+     */
+    int size();
+
+    /**
+     * The estimated heap held by stored traces, counting a trace shared by
+     * several sessions once.
+     */
+    long estimatedBytes();
+
+    void evictExpired();
+
+    /**
+     * Registers {@code listener} to be called with the id of every trace
+     * dropped from memory, so data derived from a trace goes with it.
+     */
+    void onEvict(Consumer<String> listener);
+
+    /**
+     * A file holding every step of the trace in the binary step encoding,
+     * for downloads that can be sent without decoding a step, or null when
+     * the store keeps no such file for it.
+     *
+     * @param gzip whether the client accepts the file gzipped; the store may
+     *             still return it uncompressed
+     */
+    default EncodedSteps encodedSteps(String algorithm, String traceId, boolean gzip) throws IOException {
+        return null;
+    }
+
+    /**
+     * @param gzipped whether the file holds the encoding gzipped
+     */
+    record EncodedSteps(Path file, long length, boolean gzipped) {
+    }
+}
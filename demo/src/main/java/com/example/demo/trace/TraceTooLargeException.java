@@ -0,0 +1,13 @@
+package com.example.demo.trace;
+
+/**
+ * A trace, or the input it would be generated from, is over a configured
+ * limit. It is an {@link IllegalArgumentException}, so callers that report
+ * bad input per item, such as batch initialization, report this too.
+ */
+public class TraceTooLargeException extends IllegalArgumentException {
+
+    public TraceTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.trace;
+
+/**
+ * No trace of the requested algorithm is stored under the given id, either
+ * because it was never handed out or because it expired.
+ */
+public class UnknownTraceException extends IllegalArgumentException {
+
+    public UnknownTraceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.trace;
+
+/**
+ * A valid {@link Granularity} that the requested kind of trace cannot be
+ * played at.
+ */
+public class UnsupportedGranularityException extends IllegalArgumentException {
+
+    public UnsupportedGranularityException(String message) {
+        super(message);
+    }
+}
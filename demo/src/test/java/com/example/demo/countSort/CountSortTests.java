@@ -0,0 +1,57 @@
+package com.example.demo.countSort;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.sort.SortEngine;
+import com.example.demo.trace.Trace;
+
+/**
+ * Counting sort over values the old zero-based counter could not index:
+ * negatives, and ranges far wider than the input.
+ */
+class CountSortTests {
+
+	private final CountSort countSort = new CountSort();
+
+	@Test
+	void sortsNegativeValuesWithAnOffsetCounter() {
+		// Range -4..3 fits a dense counter of 8 slots
+		int[] array = {3, -2, 0, -2, 1, -4};
+		SortState last = sort(array, 8);
+		assertArrayEquals(new int[] {-4, -3, -2, -1, 0, 1, 2, 3}, last.getCounterKeys());
+	}
+
+	@Test
+	void sortsWideRangesWithASparseCounter() {
+		// A dense counter would need 10^8 + 6 slots
+		int[] array = {100_000_000, -5, 3};
+		SortState last = sort(array, 3);
+		assertArrayEquals(new int[] {-5, 3, 100_000_000}, last.getCounterKeys());
+	}
+
+	/**
+	 * Sorts {@code array} and checks the result and the step count: the
+	 * initial step, one per element counted, one per slot accumulated after
+	 * the first, one per element placed, and the final step.
+	 */
+	private SortState sort(int[] array, int slots) {
+		Trace<SortState> trace = SortEngine.record(countSort, array);
+		long steps = 2L * array.length + slots + 1;
+		assertEquals(steps, trace.size());
+		assertEquals(steps, countSort.countSteps(array));
+
+		SortState last = trace.step(trace.size() - 1);
+		int[] sorted = array.clone();
+		Arrays.sort(sorted);
+		assertArrayEquals(sorted, last.getArray());
+		assertTrue(last.isCompleted());
+		return last;
+	}
+
+}
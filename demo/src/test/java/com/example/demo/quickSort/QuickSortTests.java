@@ -0,0 +1,75 @@
+package com.example.demo.quickSort;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.sort.SortEngine;
+import com.example.demo.trace.Trace;
+
+/**
+ * Partitioning stops at keys equal to the pivot, so inputs made of a few
+ * distinct values, down to a single one, split evenly under every pivot
+ * strategy instead of going quadratic; and it leaves ordered keys in
+ * place, so pivots picked from the middle of the range stay good on sorted
+ * and reversed input.
+ */
+class QuickSortTests {
+
+	private static final int N = 2000;
+	// Every partition of m keys takes at most 2m steps, over about log2 n levels
+	private static final long BOUND = 2L * N * (Integer.SIZE - Integer.numberOfLeadingZeros(N)) + 2;
+
+	@Test
+	void sortsDuplicateHeavyInputsInLinearithmicSteps() {
+		List<int[]> inputs = List.of(
+			new int[N],
+			new Random(5).ints(N, 0, 4).toArray(),
+			new Random(6).ints(N, 0, 40).toArray());
+		for (PivotStrategy strategy : PivotStrategy.values()) {
+			QuickSort quickSort = new QuickSort(strategy);
+			for (int[] array : inputs) {
+				Trace<SortState> trace = SortEngine.record(quickSort, array);
+				String label = strategy.id() + " on " + Arrays.stream(array).distinct().count() + " distinct keys";
+				assertTrue(trace.size() <= BOUND, label + ": " + trace.size() + " steps");
+
+				SortState last = trace.step(trace.size() - 1);
+				int[] sorted = array.clone();
+				Arrays.sort(sorted);
+				assertArrayEquals(sorted, last.getArray(), label);
+				assertTrue(last.isCompleted(), label);
+			}
+		}
+	}
+
+	@Test
+	void keepsOrderedInputsLinearithmicWithPivotsFromTheMiddle() {
+		int[] sorted = IntStream.range(0, N).toArray();
+		int[] reversed = IntStream.range(0, N).map(i -> N - i).toArray();
+		for (PivotStrategy strategy : List.of(PivotStrategy.MIDDLE, PivotStrategy.MEDIAN_OF_THREE)) {
+			QuickSort quickSort = new QuickSort(strategy);
+			for (int[] array : List.of(sorted, reversed)) {
+				long steps = quickSort.countSteps(array);
+				assertTrue(steps <= BOUND, strategy.id() + ": " + steps + " steps");
+			}
+		}
+	}
+
+	@Test
+	void sortsDistinctKeys() {
+		int[] array = new Random(8).ints(500, -1000, 1000).toArray();
+		int[] sorted = array.clone();
+		Arrays.sort(sorted);
+		for (PivotStrategy strategy : PivotStrategy.values()) {
+			Trace<SortState> trace = SortEngine.record(new QuickSort(strategy), array);
+			assertArrayEquals(sorted, trace.step(trace.size() - 1).getArray(), strategy.id());
+		}
+	}
+
+}
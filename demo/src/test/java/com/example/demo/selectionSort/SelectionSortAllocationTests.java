@@ -0,0 +1,48 @@
+package com.example.demo.selectionSort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.sort.SortEngine;
+import com.example.demo.trace.Trace;
+
+/**
+ * Allocation benchmark for trace generation. Recording a step used to box
+ * the working and initial arrays (2n Integers plus two lists); it should now
+ * cost a few bytes of column storage, independent of the array length.
+ */
+class SelectionSortAllocationTests {
+
+	private static final int LENGTH = 300;
+	private static final long MAX_BYTES_PER_STEP = 128;
+
+	@Test
+	void recordingAllocatesConstantBytesPerStep() {
+		com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		int[] array = new Random(42).ints(LENGTH, 0, 1000).toArray();
+
+		SelectionSort algorithm = new SelectionSort();
+
+		// Warm up so class loading and JIT don't count towards the measurement.
+		for (int i = 0; i < 3; i++) {
+			SortEngine.record(algorithm, array);
+		}
+
+		long threadId = Thread.currentThread().threadId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		Trace<SortingState> trace = SortEngine.record(algorithm, array);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		assertEquals(SelectionSortCursor.countSteps(array), trace.size());
+		long perStep = allocated / trace.size();
+		assertTrue(perStep <= MAX_BYTES_PER_STEP,
+			"expected at most " + MAX_BYTES_PER_STEP + " bytes per step but was " + perStep);
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.example.demo.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.trace.OperationCounts;
+import com.example.demo.trace.StepCursor;
+import com.example.demo.trace.Trace;
+
+/**
+ * Counts cover the algorithm's own memory only: the registers the quick and
+ * merge sort cursors keep for their bounds are not auxiliary memory.
+ */
+@SpringBootTest
+class OperationCountsTests {
+
+	private static final int[] ARRAY = new Random(9).ints(200, 0, 1000).toArray();
+
+	@Autowired
+	private SortEngine engine;
+
+	@Test
+	void quickSortUsesNoAuxiliaryMemory() {
+		for (String pivot : List.of("first", "last", "middle", "median-of-three", "random")) {
+			SortRequest request = new SortRequest();
+			request.setPivot(pivot);
+			for (OperationCounts counts : counts(engine.algorithm("quick").configure(request), pivot)) {
+				assertEquals(0, counts.auxWrites(), pivot);
+				assertEquals(0, counts.auxMemory(), pivot);
+			}
+		}
+	}
+
+	@Test
+	void mergeSortCountsItsBufferOnly() {
+		for (OperationCounts counts : counts(engine.algorithm("merge"), null)) {
+			assertEquals(ARRAY.length, counts.auxMemory());
+			// Every element a merge writes back was copied to the buffer first
+			assertEquals(counts.writes(), counts.auxWrites());
+		}
+	}
+
+	/**
+	 * The final counts of a recorded trace, a lazy cursor and a race.
+	 */
+	private List<OperationCounts> counts(SortAlgorithm<?> algorithm, String pivot) {
+		Trace<?> trace = SortEngine.record(algorithm, ARRAY);
+		StepCursor<?> cursor = algorithm.cursor(ARRAY);
+		while (cursor.position() < trace.size() - 1) {
+			cursor.advance();
+		}
+		CompareRequest request = new CompareRequest();
+		request.setArray(ARRAY);
+		request.setAlgorithms(List.of(algorithm.name()));
+		request.setPivot(pivot);
+		RaceResult race = engine.compare(request).results().get(0);
+		return List.of(trace.operations(trace.size() - 1), cursor.counts(), race.operations());
+	}
+
+}
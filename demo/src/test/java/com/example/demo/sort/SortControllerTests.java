@@ -0,0 +1,201 @@
+package com.example.demo.sort;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.trace.AsyncTrace;
+import com.example.demo.trace.TraceStore;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = {"trace.limits.max-length=100", "trace.limits.max-eager-steps=2000",
+	"trace.jobs.max-running=0", "trace.jobs.retry-after=7s"})
+@AutoConfigureMockMvc
+class SortControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private TraceStore traceStore;
+
+	@Test
+	void rejectsInputsOverTheLimitsAsTooLarge() throws Exception {
+		mvc.perform(post("/api/sort/quick/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": [" + "1,".repeat(100) + "1]}"))
+			.andExpect(status().isPayloadTooLarge())
+			.andExpect(jsonPath("$.detail").value("Input array is too long: 101 elements, at most 100 allowed"));
+	}
+
+	@Test
+	void rejectsUnsupportedOnDemandGranularities() throws Exception {
+		mvc.perform(post("/api/sort/quick/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": [3, 1, 2], \"mode\": \"lazy\", \"granularity\": \"swap\"}"))
+			.andExpect(status().isUnprocessableEntity());
+	}
+
+	@Test
+	void playsTracesThatOutgrowTheirEstimateOnDemand() throws Exception {
+		// An organ pipe puts the largest key in the middle of every range,
+		// so middle pivots split it badly, beyond the eager limit
+		String pipe = IntStream.range(0, 100).map(i -> i < 50 ? i : 100 - i)
+			.mapToObj(Integer::toString).collect(Collectors.joining(", ", "[", "]"));
+		mvc.perform(post("/api/sort/quick/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": " + pipe + ", \"pivot\": \"middle\"}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.estimate.mode").value("lazy"))
+			.andExpect(jsonPath("$.totalSteps").value(greaterThan(2000)));
+	}
+
+	@Test
+	void asksToRetryWhenTooManyJobsAreRunning() throws Exception {
+		mvc.perform(post("/api/sort/quick/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": [5, 4, 3, 2, 1], \"mode\": \"async\"}"))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(header().string("Retry-After", "7"));
+	}
+
+	@Test
+	void reportsProgressForStepsNotGeneratedYet() throws Exception {
+		String traceId = traceStore.put(new AsyncTrace<>("quick", 10));
+		mvc.perform(get("/api/sort/quick/step/3").param("traceId", traceId))
+			.andExpect(status().isConflict())
+			.andExpect(jsonPath("$.progress.status").value("RUNNING"))
+			.andExpect(jsonPath("$.progress.availableSteps").value(0))
+			.andExpect(jsonPath("$.progress.totalSteps").value(10));
+	}
+
+	@Test
+	void servesStepsOfAStoredTraceAsImmutable() throws Exception {
+		String traceId = init("[3, 1, 2]");
+		String etag = mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+			.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString("Accept-Encoding"))))
+			.andExpect(jsonPath("$.stepNumber").value(1))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("\"" + traceId + "/step/1/");
+
+		mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(content().string(""));
+		mvc.perform(get("/api/sort/quick/step/2").param("traceId", traceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	void tagsGzippedStepsApart() throws Exception {
+		String traceId = init("[3, 1, 2]");
+		String plain = mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId))
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String gzipped = mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(gzipped).isEqualTo(plain.substring(0, plain.length() - 1) + "+gzip\"");
+
+		mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipped))
+			.andExpect(status().isNotModified());
+		mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0").header(HttpHeaders.IF_NONE_MATCH, gzipped))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	void tagsStepsByTheNegotiatedMediaType() throws Exception {
+		String traceId = init("[3, 1, 2]");
+		String json = etag(traceId, MediaType.ALL_VALUE);
+		assertThat(json).endsWith("/json\"");
+		assertThat(etag(traceId, MediaType.APPLICATION_JSON_VALUE)).isEqualTo(json);
+		assertThat(etag(traceId, "application/octet-stream;q=0.5, application/json")).isEqualTo(json);
+		String binary = etag(traceId, MediaType.APPLICATION_OCTET_STREAM_VALUE);
+		assertThat(binary).endsWith("/octet-stream\"");
+
+		mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId)
+				.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, json))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM));
+	}
+
+	@Test
+	void neverRevalidatesStepsNotGeneratedYet() throws Exception {
+		String traceId = traceStore.put(new AsyncTrace<>("quick", 10));
+		mvc.perform(get("/api/sort/quick/step/3").param("traceId", traceId)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + traceId + "/step/3/0\""))
+			.andExpect(status().isConflict())
+			.andExpect(header().doesNotExist(HttpHeaders.ETAG))
+			.andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+	}
+
+	@Test
+	void requiresATraceIdForSteps() throws Exception {
+		init("[3, 1, 2]");
+		mvc.perform(get("/api/sort/quick/step/1"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void answersUnknownAlgorithmsAndTracesWithNotFound() throws Exception {
+		mvc.perform(post("/api/sort/bogo/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": [3, 1, 2]}"))
+			.andExpect(status().isNotFound())
+			.andExpect(jsonPath("$.detail").value("Unknown sorting algorithm: bogo"));
+		mvc.perform(get("/api/sort/quick/step/1").param("traceId", "00000000-0000-0000-0000-000000000000"))
+			.andExpect(status().isNotFound())
+			.andExpect(jsonPath("$.detail").value("Unknown or expired trace"));
+	}
+
+	@Test
+	void answersInvalidArgumentsWithBadRequest() throws Exception {
+		String traceId = init("[3, 1, 2]");
+		mvc.perform(get("/api/sort/quick/step/10000").param("traceId", traceId))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.detail").value("Invalid step number"));
+		mvc.perform(post("/api/sort/quick/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": [3, 1, 2], \"pivot\": \"sideways\"}"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.detail").value("Unknown pivot strategy: sideways"));
+		mvc.perform(post("/api/sort/count/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": []}"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private String etag(String traceId, String accept) throws Exception {
+		return mvc.perform(get("/api/sort/quick/step/1").param("traceId", traceId).header(HttpHeaders.ACCEPT, accept))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private String init(String array) throws Exception {
+		String response = mvc.perform(post("/api/sort/quick/init").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"array\": " + array + "}"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(response, "$.traceId");
+	}
+
+}
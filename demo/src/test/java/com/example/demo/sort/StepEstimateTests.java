@@ -0,0 +1,66 @@
+package com.example.demo.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Admission estimates step counts without running the algorithm. It must
+ * hold for the inputs each algorithm does worst on where it is a bound, and
+ * for random, ordered and duplicate-heavy inputs where it is the typical
+ * count.
+ */
+@SpringBootTest
+class StepEstimateTests {
+
+	@Autowired
+	private SortEngine engine;
+
+	@Test
+	void estimatesHoldOnRandomOrderedAndDuplicateInputs() {
+		for (int n : new int[] {1, 2, 3, 7, 64, 100, 257, 1000}) {
+			for (int[] array : inputs(n)) {
+				assertBound(engine.algorithm("merge"), array);
+				assertBound(engine.algorithm("heap"), array);
+				for (String pivot : List.of("first", "last", "middle", "median-of-three", "random")) {
+					SortRequest request = new SortRequest();
+					request.setPivot(pivot);
+					assertBound(engine.algorithm("quick").configure(request), array);
+				}
+			}
+		}
+	}
+
+	@Test
+	void closedFormsAreExact() {
+		int[] array = new Random(11).ints(300, -50, 50).toArray();
+		for (String name : List.of("bubble", "selection", "insertion", "count")) {
+			SortAlgorithm<?> algorithm = engine.algorithm(name);
+			assertEquals(algorithm.countSteps(array), algorithm.estimateSteps(array), name);
+		}
+	}
+
+	private static List<int[]> inputs(int n) {
+		return List.of(
+			new Random(n).ints(n, 0, 2 * n).toArray(),
+			IntStream.range(0, n).toArray(),
+			IntStream.range(0, n).map(i -> n - i).toArray(),
+			new int[n],
+			new Random(n).ints(n, 0, 4).toArray());
+	}
+
+	private static void assertBound(SortAlgorithm<?> algorithm, int[] array) {
+		long steps = algorithm.countSteps(array);
+		long estimate = algorithm.estimateSteps(array);
+		assertTrue(estimate >= steps,
+			algorithm.displayName() + " on " + array.length + " elements: " + estimate + " < " + steps);
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.example.demo.trace;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.sort.SortEngine;
+import com.example.demo.sort.StepResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Decodes the binary step encoding back and checks it against the JSON of
+ * the same steps. Quicksort states are used since they carry the most
+ * signed fields; values and lengths are picked to need multi-byte varints.
+ */
+@SpringBootTest
+class BinaryStepConverterTests {
+
+	private static final String[] QUICK_ANIMATIONS = {"pivot", "compare", "swap", "place"};
+
+	@Autowired
+	private SortEngine engine;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void varintsRoundTrip() throws IOException {
+		int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, -64, -65, Integer.MIN_VALUE};
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryStepWriter out = new BinaryStepWriter(bytes);
+		for (int value : values) {
+			out.writeSignedVarint(value);
+		}
+		Reader in = new Reader(bytes.toByteArray());
+		for (int value : values) {
+			assertEquals(value, in.signedVarint());
+		}
+		assertEquals(-1, in.in.read());
+
+		ByteArrayOutputStream unsigned = new ByteArrayOutputStream();
+		new BinaryStepWriter(unsigned).writeVarint(300);
+		assertArrayEquals(new byte[] {(byte) 0xAC, 0x02}, unsigned.toByteArray());
+	}
+
+	@Test
+	void stepRangeDecodesToItsJson() throws IOException {
+		@SuppressWarnings("unchecked")
+		SortAlgorithm<BinaryEncodable> quick = (SortAlgorithm<BinaryEncodable>) engine.algorithm("quick");
+		int[] array = new Random(11).ints(200, -100_000, 100_000).toArray();
+		Trace<BinaryEncodable> trace = SortEngine.record(quick, array);
+		StepRange<BinaryEncodable> range = StepRange.of(trace, 150, 400);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryStepConverter.write(range, new BinaryStepWriter(bytes));
+		Reader in = new Reader(bytes.toByteArray());
+
+		assertEquals(trace.size(), in.varint());
+		assertEquals(150, in.varint());
+		assertEquals(400, in.varint());
+		assertEquals(250, in.varint());
+		for (BinaryEncodable step : range.getSteps()) {
+			assertEquals(objectMapper.valueToTree(step), readQuickState(in));
+		}
+		assertEquals(-1, in.in.read());
+	}
+
+	@Test
+	void stepResponseCarriesItsStepNumber() throws IOException {
+		int[] array = {-3, 1_000_000, -70_000, 5};
+		Trace<?> trace = SortEngine.record(engine.algorithm("quick"), array);
+		BinaryEncodable state = (BinaryEncodable) trace.step(2);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryStepConverter.write(new StepResponse("ok", state, 2, null), new BinaryStepWriter(bytes));
+		Reader in = new Reader(bytes.toByteArray());
+
+		assertEquals(3, in.varint());
+		assertEquals(objectMapper.valueToTree(state), readQuickState(in));
+	}
+
+	private JsonNode readQuickState(Reader in) throws IOException {
+		ObjectNode state = objectMapper.createObjectNode();
+		int length = in.varint();
+		int[] array = new int[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = in.signedVarint();
+		}
+		state.set("array", objectMapper.valueToTree(array));
+		state.put("currentIndex", in.signedVarint());
+		state.put("comparingIndex", in.signedVarint());
+		state.put("pivotIndex", in.signedVarint());
+		state.put("low", in.signedVarint());
+		state.put("high", in.signedVarint());
+		state.put("depth", in.varint());
+		int from = in.signedVarint();
+		state.set("sortedRange", objectMapper.valueToTree(SortedRange.of(from, from + in.varint())));
+		state.put("completed", in.in.read() == 1);
+		int code = in.varint();
+		state.put("animation", code == 0 ? null : QUICK_ANIMATIONS[code - 1]);
+		return state;
+	}
+
+	private static final class Reader {
+		final InputStream in;
+
+		Reader(byte[] bytes) {
+			this.in = new ByteArrayInputStream(bytes);
+		}
+
+		int varint() throws IOException {
+			int value = 0;
+			for (int shift = 0; ; shift += 7) {
+				int b = in.read();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+		}
+
+		int signedVarint() throws IOException {
+			int zigzag = varint();
+			return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+	}
+
+}
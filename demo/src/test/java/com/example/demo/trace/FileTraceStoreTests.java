@@ -0,0 +1,73 @@
+package com.example.demo.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.sort.SortEngine;
+
+/**
+ * Sessions sharing a trace share its file, and every id still resolves to
+ * it from a new store over the same directory.
+ */
+@SpringBootTest
+class FileTraceStoreTests {
+
+	@Autowired
+	private List<TraceDecoder<?>> decoders;
+
+	@Autowired
+	private SortEngine engine;
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void sharedTracesAreWrittenOnce() throws Exception {
+		SortAlgorithm<?> quick = engine.algorithm("quick");
+		int[] array = new Random(5).ints(100, 0, 1000).toArray();
+		Trace<?> trace = SortEngine.record(quick, array);
+
+		FileTraceStore store = store();
+		String first = store.put(trace, "quick", array);
+		String second = store.put(trace, "quick", array);
+		String other = store.put(SortEngine.record(quick, array.clone()), "quick:first", array);
+		store.shutdown();
+
+		assertEquals(2, count(".trace"));
+		assertEquals(3, count(".link"));
+
+		FileTraceStore restarted = store();
+		for (String id : List.of(first, second, other)) {
+			Trace<?> loaded = restarted.find("quick", id);
+			assertNotNull(loaded, id);
+			assertEquals(trace.size(), loaded.size());
+			assertEquals(trace.step(trace.size() / 2), loaded.step(trace.size() / 2));
+		}
+		restarted.shutdown();
+	}
+
+	private FileTraceStore store() throws IOException {
+		return new FileTraceStore(directory, Duration.ofMinutes(30), Duration.ofMinutes(10), decoders);
+	}
+
+	private long count(String suffix) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(suffix)).count();
+		}
+	}
+
+}
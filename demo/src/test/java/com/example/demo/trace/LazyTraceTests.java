@@ -0,0 +1,74 @@
+package com.example.demo.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.sort.SortAlgorithm;
+import com.example.demo.sort.SortEngine;
+import com.example.demo.sort.SortRequest;
+
+/**
+ * On-demand traces must produce the same steps and counts as recorded ones,
+ * however playback moves through them: forwards, back past the window of
+ * recent steps, and across checkpoint boundaries in both directions.
+ */
+@SpringBootTest
+class LazyTraceTests {
+
+	private static final String[] PIVOTS = {"first", "last", "middle", "median-of-three", "random"};
+
+	@Autowired
+	private SortEngine engine;
+
+	@Test
+	void lazyStepsMatchRecordedSteps() {
+		int[] array = new Random(7).ints(250, 0, 500).toArray();
+		for (String name : List.of("bubble", "selection", "insertion", "count", "merge", "heap")) {
+			compare(engine.algorithm(name), array);
+		}
+		for (String pivot : PIVOTS) {
+			SortRequest request = new SortRequest();
+			request.setPivot(pivot);
+			compare(engine.algorithm("quick").configure(request), array);
+		}
+	}
+
+	private static <S extends BinaryEncodable> void compare(SortAlgorithm<S> algorithm, int[] array) {
+		String label = algorithm.displayName();
+		Trace<S> recorded = SortEngine.record(algorithm, array);
+		LazyTrace<S> lazy = new LazyTrace<>(algorithm.name(), LazyTrace.checkedSize(algorithm.countSteps(array)),
+			algorithm.cursor(array), algorithm.stepBytes(array.length));
+		int size = recorded.size();
+		assertEquals(size, lazy.size(), label);
+		assertTrue(size > 2 * 256, label + " trace is too short to leave the window: " + size);
+
+		for (int i = 0; i < size; i++) {
+			assertStep(recorded, lazy, i, label);
+		}
+		// Back past the window, then around every checkpoint from the end
+		int interval = (size + 63) / 64;
+		List<Integer> seeks = new ArrayList<>(List.of(0, 1, size / 2, size - 1));
+		for (int k = size / interval; k > 0; k--) {
+			seeks.add(k * interval - 1);
+			seeks.add(Math.min(size - 1, k * interval));
+			seeks.add(Math.min(size - 1, k * interval + 1));
+		}
+		for (int step : seeks) {
+			assertStep(recorded, lazy, step, label);
+		}
+	}
+
+	private static <S> void assertStep(Trace<S> recorded, Trace<S> lazy, int step, String label) {
+		assertEquals(recorded.step(step), lazy.step(step), label + " step " + step);
+		assertEquals(recorded.operations(step), lazy.operations(step), label + " counts at step " + step);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.example.demo.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.sort.SortEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encoded blocks are cached per trace id and go when the store evicts the
+ * id, without touching the blocks of other ids playing the same trace.
+ */
+@SpringBootTest
+class PlaybackFramesTests {
+
+	@Autowired
+	private SortEngine engine;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void dropsTheBlocksOfEvictedTraces() {
+		InMemoryTraceStore store = new InMemoryTraceStore(Duration.ofMinutes(30), Duration.ofMinutes(10));
+		PlaybackFrames frames = new PlaybackFrames(objectMapper, store, DataSize.ofMegabytes(1));
+		Trace<?> trace = SortEngine.record(engine.algorithm("merge"),
+			new Random(3).ints(100, 0, 100).toArray());
+		assertTrue(trace.size() > 2 * PlaybackFrames.BLOCK_STEPS);
+		store.put("expired", trace, System.nanoTime() - Duration.ofHours(1).toNanos());
+		store.put("live", trace, System.nanoTime());
+
+		String expired = append(frames, "expired", trace);
+		long oneTrace = frames.cachedBytes();
+		assertTrue(oneTrace > expired.length(), "blocks weigh less than their text: " + oneTrace);
+		assertEquals(expired, append(frames, "expired", trace));
+		assertEquals(oneTrace, frames.cachedBytes());
+		assertEquals(expired, append(frames, "live", trace));
+		assertEquals(2 * oneTrace, frames.cachedBytes());
+
+		store.evictExpired();
+		assertEquals(oneTrace, frames.cachedBytes());
+		assertEquals(expired, append(frames, "live", trace));
+		assertEquals(oneTrace, frames.cachedBytes());
+	}
+
+	private static String append(PlaybackFrames frames, String traceId, Trace<?> trace) {
+		StringBuilder json = new StringBuilder();
+		frames.append(traceId, trace, 0, 2 * PlaybackFrames.BLOCK_STEPS, json);
+		return json.toString();
+	}
+
+}
@@ -77,6 +77,7 @@ const InsertionSortViz: React.FC<InsertionSortVizProps> = ({
   const [currentStep, setCurrentStep] = useState(0);
   const [isPlaying, setIsPlaying] = useState(false);
   const [totalSteps, setTotalSteps] = useState(array.length * array.length); // Rough estimate
+  const [traceId, setTraceId] = useState<string | null>(null);
 
   const currentAlgo = `for (let i = 1; i < n; i++) {
     let current = arr[i];
@@ -266,6 +267,30 @@ const InsertionSortViz: React.FC<InsertionSortVizProps> = ({
   useEffect(() => {
     setAllSteps(simulateAllSteps(array));
     setTotalSteps(simulateAllSteps(array).length);
+
+    // Seeking reads steps of this array's own trace on the server
+    const initializeTrace = async () => {
+      try {
+        const response = await fetch(
+          "http://localhost:8080/api/sort/insertion/init",
+          {
+            method: "POST",
+            headers: {
+              "Content-Type": "application/json",
+            },
+            body: JSON.stringify({
+              array: array,
+            }),
+          }
+        );
+        const result = await response.json();
+        setTraceId(result.traceId);
+      } catch (error) {
+        console.error("Error initializing new array:", error);
+      }
+    };
+    setTraceId(null);
+    initializeTrace();
   }, [array]);
 
   useEffect(() => {
@@ -697,13 +722,19 @@ const InsertionSortViz: React.FC<InsertionSortVizProps> = ({
   };
 
   const handleSeek = async (step: number) => {
+    if (!traceId) return;
     const response = await fetch(
-      `http://localhost:8080/api/sort/selection/step/${step}`
+      `http://localhost:8080/api/sort/insertion/step/${step}?traceId=${traceId}`
     );
     // console.log(step);
 
     const stepData = await response.json();
-    setState(stepData.state);
+    const { from, to } = stepData.state.sortedRange;
+    setState({
+      ...stepData.state,
+      sortedIndices: Array.from({ length: to - from }, (_, k) => from + k),
+      initialArray: [...state.initialArray],
+    });
     setCountStep(step);
     setCurrentStep(step);
 
@@ -17,7 +17,8 @@ interface SortState {
   array: number[];
   currentIndex: number;
   minIndex: number;
-  sortedIndices: number[];
+  sortedIndices?: number[];
+  sortedRange?: { from: number; to: number };
   completed: boolean; // Use `completed` instead of `isCompleted`
   initialArray: number[];
 }
@@ -33,6 +34,10 @@ const MediaPlayer: React.FC<MediaPlayerProps> = ({
   state,
   isAnimating
 }) => {
+  const sortedCount = state.sortedRange
+    ? state.sortedRange.to - state.sortedRange.from
+    : state.sortedIndices?.length ?? 0;
+
   const handleProgressChange = (e: React.ChangeEvent<HTMLInputElement>) => {
     onSeek(parseInt(e.target.value));
   };
@@ -58,7 +63,7 @@ const MediaPlayer: React.FC<MediaPlayerProps> = ({
 
         <button
     onClick={nextStep}
-    disabled={isAnimating || state.completed || state.sortedIndices.length >= state.array.length || isPlaying}
+    disabled={isAnimating || state.completed || sortedCount >= state.array.length || isPlaying}
     className="px-2 py-1 h-10 w-10 bg-gradient-to-r from-blue-500 to-blue-600 
                text-white rounded-full shadow-md hover:from-blue-600 
                hover:to-blue-700 disabled:opacity-50 
@@ -10,17 +10,23 @@ import { TooltipContent } from "@radix-ui/react-tooltip";
 import { Button } from "@/components/ui/button";
 import { Code } from "lucide-react";
 
+interface SortedRange {
+  from: number;
+  to: number; // exclusive
+}
+
 interface SortState {
   array: number[];
   currentIndex: number;
   minIndex: number;
-  sortedIndices: number[];
+  sortedRange: SortedRange;
   completed: boolean; // Use `completed` instead of `isCompleted`
   initialArray: number[];
   currentLine: number;
 }
 
 interface SortingResult {
+  traceId: string;
   message: string;
   originalArray: number[];
   sortedArray: number[];
@@ -33,10 +39,9 @@ interface SortStep {
     array: number[];
     currentIndex: number;
     minIndex: number;
-    sortedIndices: number[];
-    initialArray: number[];
+    sortedRange: SortedRange;
     completed: boolean; // Use `completed` instead of `isCompleted`
-    
+    currentLine: number;
   };
   stepNumber: number;
 }
@@ -60,7 +65,7 @@ const SelectionSortViz: React.FC<SelectionSortVizProps> = ({
     array: array,
     currentIndex: 0,
     minIndex: 0,
-    sortedIndices: [],
+    sortedRange: { from: 0, to: 0 },
     completed: false,
     initialArray: array,
     currentLine: 0,
@@ -82,6 +87,26 @@ const SelectionSortViz: React.FC<SelectionSortVizProps> = ({
   const [currentStep, setCurrentStep] = useState(0);
   const [isPlaying, setIsPlaying] = useState(false);
   const [totalSteps, setTotalSteps] = useState(0);
+  const [traceId, setTraceId] = useState<string | null>(null);
+  // Steps fetched ahead of playback, keyed by step number
+  const stepCache = useRef<Map<number, SortStep["state"]>>(new Map());
+
+  const fetchStep = async (step: number): Promise<SortStep> => {
+    const cached = stepCache.current.get(step);
+    if (cached) {
+      return { message: "Step retrieved successfully", state: cached, stepNumber: step };
+    }
+    // Prefetch a larger window the faster playback runs
+    const prefetch = Math.max(20, Math.ceil(20 * speed));
+    const response = await fetch(
+      `http://localhost:8080/api/sort/selection/steps?from=${step}&to=${step + prefetch}&traceId=${traceId}`
+    );
+    const range = await response.json();
+    range.steps.forEach((s: SortStep["state"], k: number) =>
+      stepCache.current.set(range.from + k, s)
+    );
+    return { message: "Step retrieved successfully", state: range.steps[0], stepNumber: step };
+  };
 
   const currentAlgo = `minIndex = 0;
 for (let i = 0; i<n ; i++)
@@ -125,13 +150,11 @@ for (let i = 0; i<n ; i++)
   };
 
   const handleSeek = async (step: number) => {
-    const response = await fetch(
-      `http://localhost:8080/api/sort/selection/step/${step}`
-    );
-    // console.log(step);
-    
-    const stepData = await response.json();
-    setState(stepData.state);
+    const stepData = await fetchStep(step);
+    setState({
+      ...stepData.state,
+      initialArray: [...state.initialArray],
+    });
     setCountStep(step);
     setCurrentStep(step);
 
@@ -161,9 +184,11 @@ for (let i = 0; i<n ; i++)
           initialArray: newState.originalArray,
           currentIndex: 0,
           minIndex: 0,
-          sortedIndices: [],
+          sortedRange: { from: 0, to: 0 },
           isCompleted: false,
         }));
+        stepCache.current.clear();
+        setTraceId(newState.traceId);
         setTotalSteps(newState.totalSteps);
         setComparingIndex(null);
         setSwappingPairs(null);
@@ -420,7 +445,7 @@ for (let i = 0; i<n ; i++)
       .transition()
       .duration(500 / speed)
       .attr("fill", (_, i) => {
-        if (state.sortedIndices.includes(i)) return "url(#gradient-sorted)";
+        if (i >= state.sortedRange.from && i < state.sortedRange.to) return "url(#gradient-sorted)";
         if (i === state.minIndex) return "url(#gradient-minimum)";
         if (i === state.currentIndex) return "url(#gradient-current)";
         if (i === comparingIndex) return "url(#gradient-comparing)";
@@ -498,17 +523,7 @@ for (let i = 0; i<n ; i++)
     if (!isAnimating) {
       setIsAnimating(true);
       try {
-        const response = await fetch(
-          `http://localhost:8080/api/sort/selection/step/${countStep}`,
-          {
-            method: "GET",
-            headers: {
-              "Content-Type": "application/json",
-            },
-          }
-        );
-
-        const stepData = await response.json();
+        const stepData = await fetchStep(countStep);
 
         const comparisons = [];
         for (let i = 0; i < arrayLength - 1; i++) {
@@ -546,9 +561,8 @@ for (let i = 0; i<n ; i++)
           array: stepData.state.array,
           currentIndex: stepData.state.currentIndex,
           minIndex: stepData.state.minIndex,
-          sortedIndices: stepData.state.sortedIndices,
+          sortedRange: stepData.state.sortedRange,
           completed: stepData.state.completed,
-          initialArray: stepData.state.initialArray,
           currentLine: stepData.state.currentLine,
         }));
 
@@ -600,23 +614,11 @@ for (let i = 0; i<n ; i++)
 
       setComparingIndex(null);
 
-      const response = await fetch(
-        "http://localhost:8080/api/sort/selection/step",
-        {
-          method: "POST",
-          headers: {
-            "Content-Type": "application/json",
-          },
-          body: JSON.stringify({
-            array: state.array,
-            currentIndex: state.currentIndex,
-            reset: false,
-          }),
-        }
+      // The step that ends this pass, after its swap
+      const { state: newState } = await fetchStep(
+        countStep + arrayLength - state.currentIndex
       );
 
-      const newState: SortState = await response.json();
-
       if (state.array[state.currentIndex] !== state.array[newState.minIndex]) {
         setSwappingPairs({
           from: state.currentIndex,
@@ -644,17 +646,7 @@ for (let i = 0; i<n ; i++)
     setIsAnimating(true);
 
     try {
-      const response = await fetch(
-        `http://localhost:8080/api/sort/selection/step/${countStep - 1}`,
-        {
-          method: "GET",
-          headers: {
-            "Content-Type": "application/json",
-          },
-        }
-      );
-
-      const newState: SortStep = await response.json();
+      const newState: SortStep = await fetchStep(countStep - 1);
 
       if (
         newState &&
@@ -674,9 +666,8 @@ for (let i = 0; i<n ; i++)
           array: newState.state.array,
           currentIndex: newState.state.currentIndex,
           minIndex: newState.state.currentIndex,
-          sortedIndices: newState.state.sortedIndices,
+          sortedRange: newState.state.sortedRange,
           completed: newState.state.completed,
-          initialArray: newState.state.initialArray,
         }));
       }
 
@@ -699,22 +690,7 @@ for (let i = 0; i<n ; i++)
     setIsPlaying(false);
 
     try {
-      const response = await fetch(
-        "http://localhost:8080/api/sort/selection/step",
-        {
-          method: "POST",
-          headers: {
-            "Content-Type": "application/json",
-          },
-          body: JSON.stringify({
-            array: state.initialArray,
-            currentIndex: 0,
-            reset: true,
-          }),
-        }
-      );
-
-      const newState: SortState = await response.json();
+      const { state: newState } = await fetchStep(0);
 
       setState((prev) => ({
         ...newState,